@@ -0,0 +1,127 @@
+package com.example.benchmark;
+
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ClassPathBeanDefinitionScanner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+
+import java.io.BufferedOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/21
+ * @usage BenchmarkContexts 为各模块启动只包含该模块 Bean 的 Spring 上下文
+ * 四个模块的类都在 com.example 包下，直接用各自的 @SpringBootApplication 启动会互相扫描到对方的切面，
+ * 这里只扫描与指定类位于同一个 jar 中的组件
+ */
+public final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableAutoConfiguration
+    static class BenchmarkConfiguration {
+    }
+
+    /**
+     * 启动非 Web 上下文
+     * @param moduleClass 模块中的任意一个类，用于定位模块所在的 jar
+     * @param logging 是否开启 com.example 下的日志
+     * @param properties 额外的配置，格式为 key=value
+     * @return Spring 上下文
+     */
+    public static ConfigurableApplicationContext start(Class<?> moduleClass, boolean logging, String... properties) {
+        String moduleLocation = moduleClass.getProtectionDomain().getCodeSource().getLocation().toString();
+
+        SpringApplication application = new SpringApplication(BenchmarkConfiguration.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setBannerMode(Banner.Mode.OFF);
+        application.setLogStartupInfo(false);
+
+        Map<String, Object> defaultProperties = new HashMap<>();
+        defaultProperties.put("spring.config.name", "aop-benchmark");
+        defaultProperties.put("logging.level.com.example", logging ? "INFO" : "OFF");
+        for (String property : properties) {
+            int separator = property.indexOf('=');
+            defaultProperties.put(property.substring(0, separator), property.substring(separator + 1));
+        }
+        application.setDefaultProperties(defaultProperties);
+
+        application.addInitializers(context -> {
+            ClassPathBeanDefinitionScanner scanner = new ClassPathBeanDefinitionScanner((BeanDefinitionRegistry) context);
+            scanner.addExcludeFilter(new AnnotationTypeFilter(SpringBootApplication.class));
+            scanner.addExcludeFilter((metadataReader, metadataReaderFactory) -> {
+                try {
+                    return !metadataReader.getResource().getURL().toString().contains(moduleLocation);
+                } catch (IOException e) {
+                    return true;
+                }
+            });
+            scanner.scan(moduleClass.getPackage().getName().split("\\.")[0]);
+        });
+        return application.run();
+    }
+
+    /**
+     * 取出被代理的原始对象
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T target(T bean) {
+        Object target = AopProxyUtils.getSingletonTarget(bean);
+        return target == null ? bean : (T) target;
+    }
+
+    /**
+     * 只创建 CGLIB 代理、不织入任何通知，用于衡量代理本身的开销
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T bareProxy(T target) {
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        return (T) proxyFactory.getProxy();
+    }
+
+    /**
+     * Aop2 的目标方法直接使用 System.out 输出，开启日志时写入文件，关闭时丢弃
+     * @return 原来的 System.out，测试结束后用于恢复
+     */
+    public static PrintStream redirectSystemOut(boolean logging, String fileName) {
+        PrintStream original = System.out;
+        OutputStream outputStream;
+        if (logging) {
+            try {
+                outputStream = new BufferedOutputStream(new FileOutputStream("target/" + fileName, false));
+            } catch (FileNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        } else {
+            outputStream = new OutputStream() {
+                @Override
+                public void write(int b) {
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                }
+            };
+        }
+        System.setOut(new PrintStream(outputStream, false));
+        return original;
+    }
+}
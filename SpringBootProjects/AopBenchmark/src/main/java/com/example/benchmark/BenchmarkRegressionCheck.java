@@ -0,0 +1,102 @@
+package com.example.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/21
+ * @usage BenchmarkRegressionCheck 对比两次 JMH 的 json 结果，单次调用耗时或每次调用的内存分配
+ * 比基线高出 tolerance 以上时以非 0 状态码退出，用于在发布前发现切面开销的回退
+ * 参数：基线文件 本次结果文件 允许的下降比例（如 0.10）
+ */
+public class BenchmarkRegressionCheck {
+
+    private static final String ALLOCATION_METRIC = "·gc.alloc.rate.norm";
+
+    /**
+     * 每次调用分配量的绝对误差，低于该值的差异不视为回退
+     */
+    private static final double ALLOCATION_NOISE_BYTES = 16;
+
+    public static void main(String[] args) throws IOException {
+        File baselineFile = new File(args[0]);
+        File resultFile = new File(args[1]);
+        double tolerance = Double.parseDouble(args[2]);
+
+        if (!baselineFile.isFile()) {
+            System.out.println("基线文件 " + baselineFile + " 不存在，跳过对比；可以把本次的 " + resultFile + " 复制过去作为基线");
+            return;
+        }
+
+        Map<String, JsonNode> baseline = read(baselineFile);
+        Map<String, JsonNode> result = read(resultFile);
+        List<String> regressions = new ArrayList<>();
+
+        for (Map.Entry<String, JsonNode> entry : result.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.println("[新增] " + entry.getKey());
+                continue;
+            }
+            JsonNode after = entry.getValue();
+
+            double scoreBefore = before.path("primaryMetric").path("score").asDouble();
+            double scoreAfter = after.path("primaryMetric").path("score").asDouble();
+            // 吞吐量模式下分数越大越好，其余模式分数为耗时，越小越好
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            double change = higherIsBetter
+                    ? (scoreBefore - scoreAfter) / scoreBefore
+                    : (scoreAfter - scoreBefore) / scoreBefore;
+            String unit = after.path("primaryMetric").path("scoreUnit").asText();
+            String line = String.format("%s: %.3f -> %.3f %s (%+.1f%%)",
+                    entry.getKey(), scoreBefore, scoreAfter, unit, change * 100);
+            System.out.println(line);
+            if (change > tolerance) {
+                regressions.add(line);
+            }
+
+            JsonNode allocationBefore = before.path("secondaryMetrics").path(ALLOCATION_METRIC).path("score");
+            JsonNode allocationAfter = after.path("secondaryMetrics").path(ALLOCATION_METRIC).path("score");
+            if (!allocationBefore.isMissingNode() && !allocationAfter.isMissingNode()) {
+                double bytesBefore = allocationBefore.asDouble();
+                double bytesAfter = allocationAfter.asDouble();
+                if (bytesAfter - bytesBefore > Math.max(ALLOCATION_NOISE_BYTES, bytesBefore * tolerance)) {
+                    regressions.add(String.format("%s: 每次调用分配 %.0f -> %.0f B", entry.getKey(), bytesBefore, bytesAfter));
+                }
+            }
+        }
+
+        if (!regressions.isEmpty()) {
+            System.out.println("以下基准超过允许的下降比例 " + tolerance + "：");
+            regressions.forEach(regression -> System.out.println("  " + regression));
+            System.exit(1);
+        }
+        System.out.println("没有发现性能回退");
+    }
+
+    /**
+     * 以 基准方法名 + 参数 作为键
+     */
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode node : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(node.path("benchmark").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = node.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            results.put(key.toString(), node);
+        }
+        return results;
+    }
+}
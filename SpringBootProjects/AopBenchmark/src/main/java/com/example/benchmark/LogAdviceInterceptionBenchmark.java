@@ -0,0 +1,60 @@
+package com.example.benchmark;
+
+import com.example.AopController;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage LogAdviceInterceptionBenchmark Aop1 模块 LogAdvice 前置通知的单次调用开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogAdviceInterceptionBenchmark {
+
+    @Param({"true", "false"})
+    public boolean logging;
+
+    private ConfigurableApplicationContext context;
+
+    private AopController raw;
+
+    private AopController proxyOnly;
+
+    private AopController advised;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContexts.start(AopController.class, logging);
+        advised = context.getBean(AopController.class);
+        raw = BenchmarkContexts.target(advised);
+        proxyOnly = BenchmarkContexts.bareProxy(raw);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String raw() {
+        return raw.aopGet();
+    }
+
+    @Benchmark
+    public String proxyOnly() {
+        return proxyOnly.aopGet();
+    }
+
+    @Benchmark
+    public String advised() {
+        return advised.aopGet();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.benchmark;
+
+import com.example.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/21
+ * @usage LogAspectInterceptionBenchmark LogAspect 模块五个通知叠加后的单次调用开销
+ * getInfo 不在方法白名单中，环绕通知直接放行，其余四个通知照常执行
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogAspectInterceptionBenchmark {
+
+    @Param({"true", "false"})
+    public boolean logging;
+
+    private ConfigurableApplicationContext context;
+
+    private UserService raw;
+
+    private UserService proxyOnly;
+
+    private UserService advised;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContexts.start(UserService.class, logging);
+        advised = context.getBean(UserService.class);
+        raw = BenchmarkContexts.target(advised);
+        proxyOnly = BenchmarkContexts.bareProxy(raw);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String raw() {
+        return raw.getInfo("chenzufeng");
+    }
+
+    @Benchmark
+    public String proxyOnly() {
+        return proxyOnly.getInfo("chenzufeng");
+    }
+
+    @Benchmark
+    public String advised() {
+        return advised.getInfo("chenzufeng");
+    }
+}
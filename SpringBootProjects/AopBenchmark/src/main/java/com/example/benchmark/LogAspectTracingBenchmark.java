@@ -0,0 +1,50 @@
+package com.example.benchmark;
+
+import com.example.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage LogAspectTracingBenchmark 对比 LogAspect 两种输出方式下 UserService.getInfo 的吞吐量
+ * verbose 为原来的五个通知，compact 为 CompactLogAspect 的单个环绕通知；
+ * 白名单设置为 Info，使 getInfo 被完整跟踪
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogAspectTracingBenchmark {
+
+    @Param({"verbose", "compact"})
+    public String mode;
+
+    @Param({"true", "false"})
+    public boolean logging;
+
+    private ConfigurableApplicationContext context;
+
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContexts.start(UserService.class, logging,
+                "log-aspect.mode=" + mode, "log-aspect.allow-methods=Info");
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String getInfo() {
+        return userService.getInfo("chenzufeng");
+    }
+}
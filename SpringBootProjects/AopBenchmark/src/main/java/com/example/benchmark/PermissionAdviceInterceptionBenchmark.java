@@ -0,0 +1,85 @@
+package com.example.benchmark;
+
+import com.example.PermissionController;
+import com.example.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage PermissionAdviceInterceptionBenchmark Aop2 模块 PermissionFirstAdvice 环绕通知的单次调用开销
+ * 目标方法使用 System.out 输出，开启日志时写入 target/permission-advice.out；
+ * allowed 为校验通过并改写参数的路径，denied 为 id 小于 0 被拒绝的路径
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionAdviceInterceptionBenchmark {
+
+    @Param({"true", "false"})
+    public boolean logging;
+
+    private ConfigurableApplicationContext context;
+
+    private PrintStream systemOut;
+
+    private PermissionController raw;
+
+    private PermissionController proxyOnly;
+
+    private PermissionController advised;
+
+    private User user;
+
+    private User illegalUser;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        systemOut = BenchmarkContexts.redirectSystemOut(logging, "permission-advice.out");
+        context = BenchmarkContexts.start(PermissionController.class, logging);
+        advised = context.getBean(PermissionController.class);
+        raw = BenchmarkContexts.target(advised);
+        proxyOnly = BenchmarkContexts.bareProxy(raw);
+
+        user = new User();
+        user.setId(1);
+        user.setName("chenzufeng");
+        illegalUser = new User();
+        illegalUser.setId(-1);
+        illegalUser.setName("chenzufeng");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        System.out.flush();
+        System.setOut(systemOut);
+    }
+
+    @Benchmark
+    public String raw() {
+        return raw.getUser(user);
+    }
+
+    @Benchmark
+    public String proxyOnly() {
+        return proxyOnly.getUser(user);
+    }
+
+    @Benchmark
+    public String allowed() {
+        return advised.getUser(user);
+    }
+
+    @Benchmark
+    public String denied() {
+        return advised.getUser(illegalUser);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.benchmark;
+
+import com.example.PermissionAnnotation;
+import com.example.User;
+import com.example.chain.PermissionInvocation;
+import com.example.chain.PermissionStage;
+import com.example.chain.PermissionStageChain;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage PermissionStageChainBenchmark 同样 N 个校验环节，放在一个 PermissionFirstAdvice 式的组合通知中执行，
+ * 与每个环节各写一个切面叠加相比的开销；每个环节只检查参数是否为 null
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionStageChainBenchmark {
+
+    private static final String DENIED = "denied";
+
+    @Param({"1", "4", "8"})
+    public int stages;
+
+    private Target composite;
+
+    private Target stacked;
+
+    private User user;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        List<PermissionStage> checks = new ArrayList<>();
+        for (int i = 0; i < stages; i++) {
+            checks.add(new NotNullStage());
+        }
+        AspectJProxyFactory compositeFactory = new AspectJProxyFactory(new Target());
+        compositeFactory.addAspect(new CompositeAspect(new PermissionStageChain(checks, new SimpleMeterRegistry())));
+        composite = compositeFactory.getProxy();
+
+        AspectJProxyFactory stackedFactory = new AspectJProxyFactory(new Target());
+        for (int i = 0; i < stages; i++) {
+            stackedFactory.addAspect(new NotNullAspect());
+        }
+        stacked = stackedFactory.getProxy();
+
+        user = new User();
+        user.setId(1);
+        user.setName("chenzufeng");
+    }
+
+    @Benchmark
+    public String composite() {
+        return composite.check(user);
+    }
+
+    @Benchmark
+    public String stacked() {
+        return stacked.check(user);
+    }
+
+    public static class Target {
+        @PermissionAnnotation
+        public String check(User user) {
+            return user.getName();
+        }
+    }
+
+    static class NotNullStage implements PermissionStage {
+        @Override
+        public Object apply(PermissionInvocation invocation) {
+            return invocation.getArgs()[0] == null ? DENIED : null;
+        }
+    }
+
+    @Aspect
+    public static class CompositeAspect {
+
+        private final PermissionStageChain chain;
+
+        public CompositeAspect(PermissionStageChain chain) {
+            this.chain = chain;
+        }
+
+        @Around("@annotation(com.example.PermissionAnnotation)")
+        public Object around(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
+            PermissionInvocation invocation = new PermissionInvocation(
+                    ((MethodSignature) proceedingJoinPoint.getSignature()).getMethod(), proceedingJoinPoint.getArgs());
+            Object result = chain.run(invocation);
+            return result != null ? result : proceedingJoinPoint.proceed(invocation.getArgs());
+        }
+    }
+
+    @Aspect
+    public static class NotNullAspect {
+        @Around("@annotation(com.example.PermissionAnnotation)")
+        public Object around(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
+            return proceedingJoinPoint.getArgs()[0] == null ? DENIED : proceedingJoinPoint.proceed();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.benchmark;
+
+import com.example.controller.SysLogAopController;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/21
+ * @usage SysLogAspectInterceptionBenchmark SysLogAop 模块 SysLogAspect 的单次调用开销
+ * raw 直接调用目标对象，proxyOnly 经过不带通知的 CGLIB 代理，advised 经过容器中织入 SysLogAspect 的代理；
+ * 日志关闭时切面仍会把日志放入异步管道，只是写入线程不再输出
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SysLogAspectInterceptionBenchmark {
+
+    @Param({"true", "false"})
+    public boolean logging;
+
+    private ConfigurableApplicationContext context;
+
+    private SysLogAopController raw;
+
+    private SysLogAopController proxyOnly;
+
+    private SysLogAopController advised;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContexts.start(SysLogAopController.class, logging);
+        advised = context.getBean(SysLogAopController.class);
+        raw = BenchmarkContexts.target(advised);
+        proxyOnly = BenchmarkContexts.bareProxy(raw);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String raw() {
+        return raw.test("chenzufeng", 18);
+    }
+
+    @Benchmark
+    public String proxyOnly() {
+        return proxyOnly.test("chenzufeng", 18);
+    }
+
+    @Benchmark
+    public String advised() {
+        return advised.test("chenzufeng", 18);
+    }
+}
@@ -4,6 +4,8 @@ import org.aspectj.lang.annotation.After;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.annotation.Pointcut;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 /**
@@ -13,12 +15,14 @@ import org.springframework.stereotype.Component;
 @Aspect
 @Component
 public class LogAdvice {
+    private static final Logger logger = LoggerFactory.getLogger(LogAdvice.class);
+
     /**
      * 定义一个切点：所有被 GetMapping 注解修饰的方法会织入 advice
      */
     @Pointcut("@annotation(org.springframework.web.bind.annotation.GetMapping)")
     private void logAdvicePointcut() {
-        System.out.println("logAdvicePointcut没有被执行！");
+        // 切点方法只用于承载表达式，不会被执行
     }
 
     /**
@@ -26,6 +30,6 @@ public class LogAdvice {
      */
     @Before("logAdvicePointcut()")
     public void logAdvice() {
-        System.out.println("Get请求的advice被触发了！");
+        logger.info("Get请求的advice被触发了！");
     }
 }
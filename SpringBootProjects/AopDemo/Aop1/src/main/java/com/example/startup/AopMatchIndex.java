@@ -0,0 +1,362 @@
+package com.example.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.PointcutAdvisor;
+import org.springframework.aop.aspectj.AbstractAspectJAdvice;
+import org.springframework.aop.aspectj.AspectInstanceFactory;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.aspectj.AspectJPrecedenceInformation;
+import org.springframework.aop.aspectj.annotation.MetadataAwareAspectInstanceFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage AopMatchIndex 构建时生成的切点匹配索引，位于 classpath 的 META-INF/aop-match.index
+ * 记录每个切点（切面名 + 表达式）对本模块每个类的匹配结果，启动时命中索引的类不再逐个方法匹配切点。
+ * 加载时整体校验一次：本模块全部类文件的 CRC32 与构建时一致，且父类、接口所在的依赖 jar 与构建时相同（按文件名，含版本号），
+ * 否则整个索引不使用；校验通过后每个 Bean 只有一次 Map 查找。JDK 类型不参与校验。
+ * 文件为制表符分隔的文本：
+ * B 本模块类文件的 CRC32（按 S、C 行的顺序）
+ * L 依赖 jar 文件名 用于定位该 jar 的类名
+ * A 序号 切点
+ * S 切面类名 切面类 CRC32
+ * C 类名 类 CRC32 匹配的切点序号（逗号分隔）
+ * S、C 行中的 CRC32 只在构建时用于沿用上一次的匹配结果
+ */
+public class AopMatchIndex {
+    private static final Logger logger = LoggerFactory.getLogger(AopMatchIndex.class);
+
+    public static final String LOCATION = "META-INF/aop-match.index";
+
+    /**
+     * 类文件读取失败时的 CRC，不与任何 CRC32 相等
+     */
+    static final long UNKNOWN_CRC = -1;
+
+    private static final AopMatchIndex EMPTY = new AopMatchIndex(UNKNOWN_CRC, Collections.emptyMap(),
+            Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+
+    /**
+     * JDK 9 及以上为平台类加载器，JDK 8 为扩展类加载器
+     */
+    private static final ClassLoader PLATFORM_CLASS_LOADER = ClassLoader.getSystemClassLoader().getParent();
+
+    final long fingerprint;
+
+    /**
+     * 依赖 jar 文件名 -> 用于定位该 jar 的类名
+     */
+    final Map<String, String> libraries;
+
+    /**
+     * 切点 -> 序号
+     */
+    final Map<String, Integer> advisors;
+
+    /**
+     * 切面类名 -> 切面类 CRC32
+     */
+    final Map<String, Long> aspects;
+
+    /**
+     * 类名 -> 类 CRC32、匹配的切点序号
+     */
+    final Map<String, ClassEntry> classes;
+
+    /**
+     * 切点 -> 在索引中的序号，不在索引中时为 -1
+     */
+    private final Map<Advisor, Integer> advisorPositions = new ConcurrentHashMap<>();
+
+    static final class ClassEntry {
+        final long crc;
+
+        final BitSet matches;
+
+        ClassEntry(long crc, BitSet matches) {
+            this.crc = crc;
+            this.matches = matches;
+        }
+    }
+
+    /**
+     * 各个 Map 按键排序，fingerprint 按这个顺序计算
+     */
+    AopMatchIndex(long fingerprint, Map<String, String> libraries, Map<String, Integer> advisors,
+                  Map<String, Long> aspects, Map<String, ClassEntry> classes) {
+        this.fingerprint = fingerprint;
+        this.libraries = libraries;
+        this.advisors = advisors;
+        this.aspects = aspects;
+        this.classes = classes;
+    }
+
+    static AopMatchIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 只有注解切面的 AspectJ 表达式切点可以放入索引；bean() 切点依赖 Bean 名称，不能按类缓存
+     * @return 切点的键，不能放入索引时返回 null
+     */
+    public static String advisorKey(Advisor advisor) {
+        if (!(advisor instanceof AspectJPrecedenceInformation) || !(advisor instanceof PointcutAdvisor)) {
+            return null;
+        }
+        Object pointcut = ((PointcutAdvisor) advisor).getPointcut();
+        if (!(pointcut instanceof AspectJExpressionPointcut)) {
+            return null;
+        }
+        String expression = ((AspectJExpressionPointcut) pointcut).getExpression();
+        if (expression == null || expression.contains("bean(") || aspectClass(advisor) == null) {
+            return null;
+        }
+        return ((AspectJPrecedenceInformation) advisor).getAspectName() + "#" + expression;
+    }
+
+    /**
+     * 切面类是切点中命名切点（如 pointCut()）的定义位置，需要一起校验
+     * @return 注解切面的类，其他切点返回 null
+     */
+    static Class<?> aspectClass(Advisor advisor) {
+        if (!(advisor.getAdvice() instanceof AbstractAspectJAdvice)) {
+            return null;
+        }
+        AspectInstanceFactory aspectInstanceFactory = ((AbstractAspectJAdvice) advisor.getAdvice()).getAspectInstanceFactory();
+        if (!(aspectInstanceFactory instanceof MetadataAwareAspectInstanceFactory)) {
+            return null;
+        }
+        return ((MetadataAwareAspectInstanceFactory) aspectInstanceFactory).getAspectMetadata().getAspectClass();
+    }
+
+    /**
+     * @return 索引中的匹配结果；类或切点不在索引中时返回 null
+     */
+    public Boolean matches(Class<?> beanClass, Advisor advisor) {
+        if (classes.isEmpty()) {
+            return null;
+        }
+        Integer position = advisorPositions.get(advisor);
+        if (position == null) {
+            position = advisorPositions.computeIfAbsent(advisor, this::position);
+        }
+        if (position < 0) {
+            return null;
+        }
+        ClassEntry entry = classes.get(beanClass.getName());
+        return entry == null ? null : entry.matches.get(position);
+    }
+
+    private int position(Advisor advisor) {
+        String key = advisorKey(advisor);
+        Integer indexed = key == null ? null : advisors.get(key);
+        // 切面类不是本模块构建时的切面，例如依赖中同名 Bean 的切面
+        if (indexed == null || !aspects.containsKey(aspectClass(advisor).getName())) {
+            return -1;
+        }
+        return indexed;
+    }
+
+    /**
+     * 构建时计算，用于沿用上一次的匹配结果：类本身、父类和接口中本模块的类文件，加上其余父类、接口所在的 jar 文件名；
+     * 切点是否匹配取决于继承来的方法和注解，只校验类本身不够。JDK 类型不参与计算
+     * @param moduleClasses 本模块的全部类名
+     * @param libraries 记录用到的依赖 jar：jar 文件名 -> 用于定位该 jar 的类名
+     * @return CRC32，某个类文件读取失败或父类型不在 jar 中时返回 UNKNOWN_CRC
+     */
+    static long checksum(Class<?> type, Set<String> moduleClasses, Map<String, String> libraries) {
+        Set<Class<?>> hierarchy = new LinkedHashSet<>();
+        collectHierarchy(type, hierarchy);
+        CRC32 crc32 = new CRC32();
+        for (Class<?> current : hierarchy) {
+            if (isJdkType(current)) {
+                continue;
+            }
+            if (moduleClasses.contains(current.getName())) {
+                if (!update(crc32, current.getClassLoader(), current.getName())) {
+                    return UNKNOWN_CRC;
+                }
+                continue;
+            }
+            String library = libraryOf(current.getClassLoader(), current.getName());
+            if (library == null) {
+                return UNKNOWN_CRC;
+            }
+            libraries.putIfAbsent(library, current.getName());
+            crc32.update(library.getBytes(StandardCharsets.UTF_8));
+        }
+        return crc32.getValue();
+    }
+
+    private static boolean isJdkType(Class<?> type) {
+        ClassLoader classLoader = type.getClassLoader();
+        return classLoader == null || classLoader == PLATFORM_CLASS_LOADER;
+    }
+
+    private static void collectHierarchy(Class<?> type, Set<Class<?>> hierarchy) {
+        if (type == null || !hierarchy.add(type)) {
+            return;
+        }
+        collectHierarchy(type.getSuperclass(), hierarchy);
+        for (Class<?> interfaceType : type.getInterfaces()) {
+            collectHierarchy(interfaceType, hierarchy);
+        }
+    }
+
+    /**
+     * 本模块全部切面类和类的类文件按 aspects、classes 的顺序计算的 CRC32
+     * @return CRC32，某个类文件读取失败时返回 UNKNOWN_CRC
+     */
+    static long fingerprint(ClassLoader classLoader, Set<String> aspectNames, Set<String> classNames) {
+        CRC32 crc32 = new CRC32();
+        for (Set<String> names : new Set[]{aspectNames, classNames}) {
+            for (String name : names) {
+                if (!update(crc32, classLoader, name)) {
+                    return UNKNOWN_CRC;
+                }
+            }
+        }
+        return crc32.getValue();
+    }
+
+    private static boolean update(CRC32 crc32, ClassLoader classLoader, String className) {
+        byte[] buffer = new byte[8192];
+        try (InputStream inputStream = classLoader.getResourceAsStream(resourceName(className))) {
+            if (inputStream == null) {
+                return false;
+            }
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                crc32.update(buffer, 0, read);
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return 类所在 jar 的文件名，例如 spring-web-5.3.16.jar；Spring Boot 可执行 jar 中为 BOOT-INF/lib 下的文件名。
+     * 不在 jar 中时返回 null
+     */
+    static String libraryOf(ClassLoader classLoader, String className) {
+        URL url = classLoader == null ? null : classLoader.getResource(resourceName(className));
+        if (url == null) {
+            return null;
+        }
+        String location = url.toString();
+        int entry = location.lastIndexOf("!/");
+        if (!location.startsWith("jar:") || entry < 0) {
+            return null;
+        }
+        String jar = location.substring(0, entry);
+        return jar.substring(jar.lastIndexOf('/') + 1);
+    }
+
+    private static String resourceName(String className) {
+        return className.replace('.', '/') + ".class";
+    }
+
+    public boolean isEmpty() {
+        return classes.isEmpty();
+    }
+
+    /**
+     * 加载并校验索引，校验不通过时返回空索引
+     */
+    public static AopMatchIndex load(ClassLoader classLoader) {
+        Resource resource = new ClassPathResource(LOCATION, classLoader);
+        if (!resource.exists()) {
+            return EMPTY;
+        }
+        AopMatchIndex index;
+        try (InputStream inputStream = resource.getInputStream()) {
+            index = read(inputStream);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("读取 {} 失败，不使用索引：{}", LOCATION, e.toString());
+            return EMPTY;
+        }
+        for (Map.Entry<String, String> library : index.libraries.entrySet()) {
+            if (!library.getKey().equals(libraryOf(classLoader, library.getValue()))) {
+                logger.info("依赖 {} 与构建时不同，不使用 {}", library.getKey(), LOCATION);
+                return EMPTY;
+            }
+        }
+        if (index.fingerprint != fingerprint(classLoader, index.aspects.keySet(), index.classes.keySet())) {
+            logger.info("类文件与构建时不同，不使用 {}", LOCATION);
+            return EMPTY;
+        }
+        return index;
+    }
+
+    static AopMatchIndex read(InputStream inputStream) throws IOException {
+        long fingerprint = UNKNOWN_CRC;
+        Map<String, String> libraries = new TreeMap<>();
+        Map<String, Integer> advisors = new TreeMap<>();
+        Map<String, Long> aspects = new TreeMap<>();
+        Map<String, ClassEntry> classes = new TreeMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String[] fields = line.split("\t", -1);
+            if ("B".equals(fields[0]) && fields.length == 2) {
+                fingerprint = Long.parseLong(fields[1]);
+            } else if ("L".equals(fields[0]) && fields.length == 3) {
+                libraries.put(fields[1], fields[2]);
+            } else if ("A".equals(fields[0]) && fields.length == 3) {
+                advisors.put(fields[2], Integer.parseInt(fields[1]));
+            } else if ("S".equals(fields[0]) && fields.length == 3) {
+                aspects.put(fields[1], Long.parseLong(fields[2]));
+            } else if ("C".equals(fields[0]) && fields.length == 4) {
+                BitSet matches = new BitSet();
+                if (!fields[3].isEmpty()) {
+                    for (String index : fields[3].split(",")) {
+                        matches.set(Integer.parseInt(index));
+                    }
+                }
+                classes.put(fields[1], new ClassEntry(Long.parseLong(fields[2]), matches));
+            }
+        }
+        return new AopMatchIndex(fingerprint, libraries, advisors, aspects, classes);
+    }
+
+    void write(Writer writer) throws IOException {
+        writer.write("# 由 AopMatchIndexGenerator 在构建时生成，不要手工修改\n");
+        writer.write("B\t" + fingerprint + "\n");
+        for (Map.Entry<String, String> entry : libraries.entrySet()) {
+            writer.write("L\t" + entry.getKey() + "\t" + entry.getValue() + "\n");
+        }
+        Map<Integer, String> advisorsByIndex = new TreeMap<>();
+        advisors.forEach((key, value) -> advisorsByIndex.put(value, key));
+        for (Map.Entry<Integer, String> entry : advisorsByIndex.entrySet()) {
+            writer.write("A\t" + entry.getKey() + "\t" + entry.getValue() + "\n");
+        }
+        for (Map.Entry<String, Long> entry : aspects.entrySet()) {
+            writer.write("S\t" + entry.getKey() + "\t" + entry.getValue() + "\n");
+        }
+        for (Map.Entry<String, ClassEntry> entry : classes.entrySet()) {
+            String matches = entry.getValue().matches.toString().replaceAll("[{} ]", "");
+            writer.write("C\t" + entry.getKey() + "\t" + entry.getValue().crc + "\t" + matches + "\n");
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.startup;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.aspectj.annotation.AspectJAdvisorFactory;
+import org.springframework.aop.aspectj.annotation.ReflectiveAspectJAdvisorFactory;
+import org.springframework.aop.aspectj.annotation.SimpleMetadataAwareAspectInstanceFactory;
+import org.springframework.beans.factory.annotation.AnnotatedGenericBeanDefinition;
+import org.springframework.beans.factory.support.SimpleBeanDefinitionRegistry;
+import org.springframework.context.annotation.AnnotationBeanNameGenerator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage AopMatchIndexGenerator 在 process-classes 阶段生成 AopMatchIndex
+ * 用本模块中所有 @Aspect 类的切点匹配本模块的每个类；上一次构建的索引仍在时，
+ * 类（含全部父类和接口）和切面都没有变化的类直接沿用上一次的结果。
+ * 同时记录本模块类文件的 CRC32 和父类型所在的依赖 jar，启动时据此对整个索引校验一次
+ * 参数：编译输出目录（target/classes）
+ */
+public class AopMatchIndexGenerator {
+
+    public static void main(String[] args) throws IOException {
+        Path classesDirectory = Paths.get(args[0]);
+        Path indexFile = classesDirectory.resolve(AopMatchIndex.LOCATION);
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+
+        AopMatchIndex previous = null;
+        if (Files.isRegularFile(indexFile)) {
+            try (InputStream inputStream = Files.newInputStream(indexFile)) {
+                previous = AopMatchIndex.read(inputStream);
+            }
+        }
+
+        Set<String> classNames = new TreeSet<>();
+        List<Path> classFiles;
+        try (Stream<Path> paths = Files.walk(classesDirectory)) {
+            classFiles = paths.filter(path -> path.toString().endsWith(".class")).collect(Collectors.toList());
+        }
+        for (Path classFile : classFiles) {
+            String relative = classesDirectory.relativize(classFile).toString().replace('\\', '/');
+            String className = relative.substring(0, relative.length() - ".class".length()).replace('/', '.');
+            if (!className.endsWith("package-info") && !className.equals("module-info")) {
+                classNames.add(className);
+            }
+        }
+
+        AspectJAdvisorFactory advisorFactory = new ReflectiveAspectJAdvisorFactory();
+        Map<String, Class<?>> types = new TreeMap<>();
+        Map<String, Advisor> advisorsByKey = new TreeMap<>();
+        Map<String, Long> aspects = new TreeMap<>();
+        Map<String, String> libraries = new TreeMap<>();
+        for (String className : classNames) {
+            Class<?> type;
+            try {
+                type = Class.forName(className, false, classLoader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                continue;
+            }
+            if (!advisorFactory.isAspect(type)) {
+                types.put(className, type);
+                continue;
+            }
+            long checksum = AopMatchIndex.checksum(type, classNames, libraries);
+            aspects.put(className, checksum);
+            if (checksum == AopMatchIndex.UNKNOWN_CRC) {
+                continue;
+            }
+            String aspectName = AnnotationBeanNameGenerator.INSTANCE.generateBeanName(
+                    new AnnotatedGenericBeanDefinition(type), new SimpleBeanDefinitionRegistry());
+            for (Advisor advisor : advisorFactory.getAdvisors(new SimpleMetadataAwareAspectInstanceFactory(type, aspectName))) {
+                String key = AopMatchIndex.advisorKey(advisor);
+                if (key != null) {
+                    advisorsByKey.putIfAbsent(key, advisor);
+                }
+            }
+        }
+
+        Map<String, Integer> advisors = new TreeMap<>();
+        List<Advisor> orderedAdvisors = new ArrayList<>(advisorsByKey.values());
+        int index = 0;
+        for (String key : advisorsByKey.keySet()) {
+            advisors.put(key, index++);
+        }
+        boolean advisorsUnchanged = previous != null
+                && previous.advisors.equals(advisors) && previous.aspects.equals(aspects);
+
+        Map<String, AopMatchIndex.ClassEntry> classes = new TreeMap<>();
+        int reused = 0;
+        for (Map.Entry<String, Class<?>> entry : types.entrySet()) {
+            long checksum = AopMatchIndex.checksum(entry.getValue(), classNames, libraries);
+            if (checksum == AopMatchIndex.UNKNOWN_CRC) {
+                continue;
+            }
+            AopMatchIndex.ClassEntry previousEntry = advisorsUnchanged ? previous.classes.get(entry.getKey()) : null;
+            if (previousEntry != null && previousEntry.crc == checksum) {
+                classes.put(entry.getKey(), previousEntry);
+                reused++;
+                continue;
+            }
+            BitSet matches = new BitSet();
+            for (int i = 0; i < orderedAdvisors.size(); i++) {
+                if (AopUtils.canApply(orderedAdvisors.get(i), entry.getValue())) {
+                    matches.set(i);
+                }
+            }
+            classes.put(entry.getKey(), new AopMatchIndex.ClassEntry(checksum, matches));
+        }
+
+        long fingerprint = AopMatchIndex.fingerprint(classLoader, aspects.keySet(), classes.keySet());
+        Files.createDirectories(indexFile.getParent());
+        try (Writer writer = Files.newBufferedWriter(indexFile, StandardCharsets.UTF_8)) {
+            new AopMatchIndex(fingerprint, libraries, advisors, aspects, classes).write(writer);
+        }
+        System.out.printf("AopMatchIndex: %d 个切点，%d 个类，其中 %d 个沿用上一次的结果，校验 %d 个依赖 jar -> %s%n",
+                advisors.size(), classes.size(), reused, libraries.size(), indexFile);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.startup;
+
+import org.springframework.aop.config.AopConfigUtils;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage AopStartupConfig 把 Spring Boot 注册的自动代理创建器替换为 InstrumentedAspectJAutoProxyCreator
+ * AopConfigUtils 只认识 Spring 自带的几种创建器，不能直接注册子类，这里在 Bean 定义注册完成后修改类名，
+ * 保留 proxyTargetClass 等已有属性；构建时索引默认启用，见 aop.match-index.enabled
+ */
+@Configuration(proxyBeanMethods = false)
+public class AopStartupConfig {
+
+    @Bean
+    public static BeanDefinitionRegistryPostProcessor instrumentedAutoProxyCreatorRegistrar() {
+        return new BeanDefinitionRegistryPostProcessor() {
+            @Override
+            public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+                if (registry.containsBeanDefinition(AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME)) {
+                    BeanDefinition definition = registry.getBeanDefinition(AopConfigUtils.AUTO_PROXY_CREATOR_BEAN_NAME);
+                    definition.setBeanClassName(InstrumentedAspectJAutoProxyCreator.class.getName());
+                }
+            }
+
+            @Override
+            public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+            }
+        };
+    }
+}
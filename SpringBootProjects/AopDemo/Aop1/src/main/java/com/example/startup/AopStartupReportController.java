@@ -0,0 +1,33 @@
+package com.example.startup;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage AopStartupReportController 查看启动期间各切面的切点匹配耗时和代理个数
+ */
+@RestController
+@RequestMapping("/aop")
+public class AopStartupReportController {
+    @Autowired
+    private InstrumentedAspectJAutoProxyCreator autoProxyCreator;
+
+    @GetMapping("startup-report")
+    public Map<String, Object> startupReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("indexed", autoProxyCreator.isIndexed());
+        report.put("indexLoadMicros", autoProxyCreator.getIndexLoadMicros());
+        report.put("advisorBuildMicros", autoProxyCreator.getAdvisorBuildMicros());
+        Collection<AspectStartupStats> aspects = autoProxyCreator.getStats();
+        report.put("aspects", aspects);
+        return report;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.startup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage AspectStartupStats 一个切面在容器启动期间的切点匹配开销
+ */
+public class AspectStartupStats {
+
+    private final String aspect;
+
+    private final LongAdder matchNanos = new LongAdder();
+
+    private final LongAdder evaluated = new LongAdder();
+
+    private final LongAdder indexHits = new LongAdder();
+
+    private final LongAdder matchedBeans = new LongAdder();
+
+    private final LongAdder proxies = new LongAdder();
+
+    AspectStartupStats(String aspect) {
+        this.aspect = aspect;
+    }
+
+    void recordMatch(long nanos, boolean matched, boolean fromIndex) {
+        matchNanos.add(nanos);
+        evaluated.increment();
+        if (fromIndex) {
+            indexHits.increment();
+        }
+        if (matched) {
+            matchedBeans.increment();
+        }
+    }
+
+    void recordProxy() {
+        proxies.increment();
+    }
+
+    public String getAspect() {
+        return aspect;
+    }
+
+    /**
+     * 切点匹配累计耗时（微秒），包括查索引的时间
+     */
+    public long getMatchMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(matchNanos.sum());
+    }
+
+    /**
+     * 切点与 Bean 类型的匹配次数，一个切面有多个通知时每个通知各算一次
+     */
+    public long getEvaluated() {
+        return evaluated.sum();
+    }
+
+    /**
+     * 其中由 AopMatchIndex 直接给出结果、没有逐个方法匹配的次数
+     */
+    public long getIndexHits() {
+        return indexHits.sum();
+    }
+
+    public long getMatchedBeans() {
+        return matchedBeans.sum();
+    }
+
+    /**
+     * 该切面参与创建的代理个数
+     */
+    public long getProxies() {
+        return proxies.sum();
+    }
+
+    @Override
+    public String toString() {
+        return aspect + ": 匹配 " + getEvaluated() + " 次（索引命中 " + getIndexHits() + " 次）耗时 "
+                + getMatchMicros() + " us，匹配成功 " + getMatchedBeans() + " 次，创建代理 " + getProxies() + " 个";
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.IntroductionAdvisor;
+import org.springframework.aop.TargetSource;
+import org.springframework.aop.aspectj.AspectJPrecedenceInformation;
+import org.springframework.aop.aspectj.annotation.AnnotationAwareAspectJAutoProxyCreator;
+import org.springframework.aop.framework.autoproxy.AbstractAutoProxyCreator;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage InstrumentedAspectJAutoProxyCreator 代替 Spring 默认的 AnnotationAwareAspectJAutoProxyCreator
+ * 按切面统计启动期间切点匹配的耗时和创建的代理个数。
+ * 默认加载 AopMatchIndex，索引整体校验通过后，Bean 类型在索引中时直接使用构建时的匹配结果；
+ * aop.match-index.enabled=false 时所有切点都由 Spring 正常匹配
+ */
+public class InstrumentedAspectJAutoProxyCreator extends AnnotationAwareAspectJAutoProxyCreator
+        implements SmartInitializingSingleton, EnvironmentAware {
+    private static final Logger logger = LoggerFactory.getLogger(InstrumentedAspectJAutoProxyCreator.class);
+
+    public static final String INDEX_ENABLED_PROPERTY = "aop.match-index.enabled";
+
+    private final Map<String, AspectStartupStats> stats = new ConcurrentHashMap<>();
+
+    private ClassLoader beanClassLoader;
+
+    private boolean indexEnabled;
+
+    private AopMatchIndex index = AopMatchIndex.empty();
+
+    private long advisorBuildNanos;
+
+    private long indexLoadNanos;
+
+    @Override
+    protected void initBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        super.initBeanFactory(beanFactory);
+        this.beanClassLoader = beanFactory.getBeanClassLoader();
+    }
+
+    /**
+     * 在 initBeanFactory 之后调用
+     */
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.indexEnabled = environment.getProperty(INDEX_ENABLED_PROPERTY, Boolean.class, true);
+        if (indexEnabled) {
+            long start = System.nanoTime();
+            this.index = AopMatchIndex.load(beanClassLoader);
+            this.indexLoadNanos = System.nanoTime() - start;
+        }
+    }
+
+    @Override
+    protected List<Advisor> findCandidateAdvisors() {
+        long start = System.nanoTime();
+        try {
+            return super.findCandidateAdvisors();
+        } finally {
+            advisorBuildNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * 索引中有结果的切点直接使用索引，其余切点一次性交给 Spring 匹配：
+     * Spring 先匹配引介再匹配其余切点，并据此决定方法匹配方式，不能拆成逐个切点调用。
+     * 有引介时不使用索引；一起匹配的切点平均分摊这次匹配的耗时
+     */
+    @Override
+    protected List<Advisor> findAdvisorsThatCanApply(List<Advisor> candidateAdvisors, Class<?> beanClass, String beanName) {
+        boolean useIndex = !index.isEmpty()
+                && candidateAdvisors.stream().noneMatch(IntroductionAdvisor.class::isInstance);
+        List<Advisor> unresolved = new ArrayList<>(candidateAdvisors.size());
+        Set<Advisor> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Advisor advisor : candidateAdvisors) {
+            long start = System.nanoTime();
+            Boolean indexed = useIndex ? index.matches(beanClass, advisor) : null;
+            if (indexed == null) {
+                unresolved.add(advisor);
+                continue;
+            }
+            if (indexed) {
+                matched.add(advisor);
+            }
+            statsFor(advisor).recordMatch(System.nanoTime() - start, indexed, true);
+        }
+
+        if (!unresolved.isEmpty()) {
+            long start = System.nanoTime();
+            Set<Advisor> applicable = Collections.newSetFromMap(new IdentityHashMap<>());
+            applicable.addAll(super.findAdvisorsThatCanApply(unresolved, beanClass, beanName));
+            long share = (System.nanoTime() - start) / unresolved.size();
+            for (Advisor advisor : unresolved) {
+                statsFor(advisor).recordMatch(share, applicable.contains(advisor), false);
+            }
+            matched.addAll(applicable);
+        }
+
+        // 保持候选切点原有的顺序
+        List<Advisor> eligible = new ArrayList<>(matched.size());
+        for (Advisor advisor : candidateAdvisors) {
+            if (matched.contains(advisor)) {
+                eligible.add(advisor);
+            }
+        }
+        return eligible;
+    }
+
+    @Override
+    protected Object[] getAdvicesAndAdvisorsForBean(Class<?> beanClass, String beanName, TargetSource targetSource) {
+        Object[] advisors = super.getAdvicesAndAdvisorsForBean(beanClass, beanName, targetSource);
+        if (advisors != AbstractAutoProxyCreator.DO_NOT_PROXY) {
+            Set<AspectStartupStats> aspects = new HashSet<>();
+            for (Object advisor : advisors) {
+                // 只统计切面，不统计 ExposeInvocationInterceptor 等基础设施
+                if (advisor instanceof AspectJPrecedenceInformation) {
+                    aspects.add(statsFor((Advisor) advisor));
+                }
+            }
+            aspects.forEach(AspectStartupStats::recordProxy);
+        }
+        return advisors;
+    }
+
+    private AspectStartupStats statsFor(Advisor advisor) {
+        String aspect = advisor instanceof AspectJPrecedenceInformation
+                ? ((AspectJPrecedenceInformation) advisor).getAspectName()
+                : advisor.getClass().getName();
+        return stats.computeIfAbsent(aspect, AspectStartupStats::new);
+    }
+
+    public Collection<AspectStartupStats> getStats() {
+        return stats.values();
+    }
+
+    public long getAdvisorBuildMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(advisorBuildNanos);
+    }
+
+    /**
+     * 读取并校验 AopMatchIndex 的耗时
+     */
+    public long getIndexLoadMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(indexLoadNanos);
+    }
+
+    public boolean isIndexed() {
+        return !index.isEmpty();
+    }
+
+    /**
+     * 所有单例创建完成后输出一次统计
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        logger.info("切面查找耗时 {} us，AopMatchIndex {}（加载耗时 {} us）", getAdvisorBuildMicros(),
+                !indexEnabled ? "未启用" : isIndexed() ? "已加载" : "不存在或校验不通过", getIndexLoadMicros());
+        for (AspectStartupStats aspectStats : stats.values()) {
+            logger.info("{}", aspectStats);
+        }
+    }
+}
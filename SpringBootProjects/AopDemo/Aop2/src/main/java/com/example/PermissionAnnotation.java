@@ -5,9 +5,26 @@ import java.lang.annotation.*;
 /**
  * @author chenzufeng
  * @date 2022/4/4
+ * @usage PermissionAnnotation 标注需要权限校验的方法，表达式为 SpEL，方法参数按参数名（或 p0、p1…）作为变量引用
+ * 判定结果按 (principal, resource) 缓存，因此 value 只能依赖 principal 和 resource 所取的内容
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
 public @interface PermissionAnnotation {
+
+    /**
+     * 校验表达式，结果为 true 时放行，例如 #user.id >= 0
+     */
+    String value() default "true";
+
+    /**
+     * 调用方标识表达式，例如 #user.id；为空时所有调用方共用一个判定结果
+     */
+    String principal() default "";
+
+    /**
+     * 被访问资源的表达式；为空时为方法本身
+     */
+    String resource() default "";
 }
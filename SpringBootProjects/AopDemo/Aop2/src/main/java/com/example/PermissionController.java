@@ -13,7 +13,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/permission")
 public class PermissionController {
     @PostMapping("check")
-    @PermissionAnnotation
+    @PermissionAnnotation(value = "#user.id >= 0", principal = "#user.id")
     public String getUser(@RequestBody User user) {
         System.out.println(user);
         return user.toString();
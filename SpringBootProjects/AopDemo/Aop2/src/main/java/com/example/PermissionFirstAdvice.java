@@ -1,10 +1,15 @@
 package com.example;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.chain.PermissionInvocation;
+import com.example.chain.PermissionStageChain;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
@@ -14,25 +19,29 @@ import org.springframework.stereotype.Component;
 @Aspect
 @Component
 public class PermissionFirstAdvice {
+    private static final Logger logger = LoggerFactory.getLogger(PermissionFirstAdvice.class);
+
+    @Autowired
+    private PermissionStageChain permissionStageChain;
+
     /**
      * 定义一个切面，括号内写入自定义注解的路径
      */
     @Pointcut("@annotation(com.example.PermissionAnnotation)")
     private void permissionCheck() {}
 
+    /**
+     * 校验和参数改写都作为 PermissionStage 在这一个通知中执行，新增校验时实现 PermissionStage 而不是再加一个切面
+     */
     @Around("permissionCheck()")
     public Object permissionCheckFirst(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
-        System.out.println("==========第一个切面==========");
-        // 获取请求参数
-        Object[] args = proceedingJoinPoint.getArgs();
-        User user = (User) args[0];
-        if (user.getId() < 0) {
-            return "{\"message\":\"illegal id\",\"code\":403}";
+        logger.info("==========第一个切面==========");
+        PermissionInvocation invocation = new PermissionInvocation(
+                ((MethodSignature) proceedingJoinPoint.getSignature()).getMethod(), proceedingJoinPoint.getArgs());
+        Object result = permissionStageChain.run(invocation);
+        if (result != null) {
+            return result;
         }
-
-        // 修改请求参数
-        ObjectMapper objectMapper = new ObjectMapper();
-        args[0] = objectMapper.readValue("{\"id\":2, \"name\":\"zufeng\"}", User.class);
-        return proceedingJoinPoint.proceed(args);
+        return proceedingJoinPoint.proceed(invocation.getArgs());
     }
 }
@@ -8,6 +8,17 @@ public class User {
     private Integer id;
     private String name;
 
+    public User() {
+    }
+
+    /**
+     * 复制构造，参数改写时使用，不修改调用方传入的对象
+     */
+    public User(User source) {
+        this.id = source.id;
+        this.name = source.name;
+    }
+
     public Integer getId() {
         return id;
     }
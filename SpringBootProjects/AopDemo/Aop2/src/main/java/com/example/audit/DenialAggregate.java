@@ -0,0 +1,53 @@
+package com.example.audit;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage DenialAggregate 一个汇总窗口内同一 principal 对同一 resource 的拒绝次数
+ */
+public class DenialAggregate {
+
+    private final String principal;
+
+    private final String resource;
+
+    private final long count;
+
+    private final long firstTimestamp;
+
+    private final long lastTimestamp;
+
+    public DenialAggregate(String principal, String resource, long count, long firstTimestamp, long lastTimestamp) {
+        this.principal = principal;
+        this.resource = resource;
+        this.count = count;
+        this.firstTimestamp = firstTimestamp;
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    public String getPrincipal() {
+        return principal;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return 窗口内第一次拒绝的时间，毫秒
+     */
+    public long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    /**
+     * @return 窗口内最后一次拒绝的时间，毫秒
+     */
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.audit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage DenialAuditController 查询最近被拒绝次数最多的调用方和资源，permission.audit.memory.enabled=true 时可用
+ */
+@RestController
+@RequestMapping("/audit/denials")
+@ConditionalOnProperty(prefix = "permission.audit.memory", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DenialAuditController {
+    @Autowired
+    private InMemoryDenialAuditSink inMemoryDenialAuditSink;
+
+    /**
+     * @param minutes 最近多少分钟
+     * @param limit 每类最多返回的条数
+     */
+    @GetMapping("/top")
+    public Map<String, List<DenialCount>> top(@RequestParam(defaultValue = "5") int minutes,
+                                              @RequestParam(defaultValue = "10") int limit) {
+        Duration range = Duration.ofMinutes(minutes);
+        Map<String, List<DenialCount>> result = new LinkedHashMap<>();
+        result.put("principals", inMemoryDenialAuditSink.topPrincipals(range, limit));
+        result.put("resources", inMemoryDenialAuditSink.topResources(range, limit));
+        return result;
+    }
+}
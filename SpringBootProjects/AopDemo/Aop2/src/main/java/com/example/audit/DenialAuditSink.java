@@ -0,0 +1,23 @@
+package com.example.audit;
+
+import java.util.List;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage DenialAuditSink 拒绝审计的落地方式，注册为 Spring Bean 即可生效，可以同时启用多个
+ * 只由汇总线程调用，实现类不需要考虑并发写入
+ */
+public interface DenialAuditSink {
+
+    /**
+     * @param aggregates 一个汇总窗口的结果，不为空，按最后一次拒绝的时间升序
+     */
+    void write(List<DenialAggregate> aggregates);
+
+    /**
+     * 停止前调用一次
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.audit;
+
+import com.example.policy.PermissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage DenialAuditor 权限校验拒绝的审计
+ * 请求线程只在被拒绝时做一次无锁入队，放行路径不受影响；汇总线程每个 window 取出全部事件，
+ * 把 principal、resource 相同的合并为一条 DenialAggregate 后交给所有 DenialAuditSink
+ */
+@Component
+public class DenialAuditor implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(DenialAuditor.class);
+
+    private final int capacity;
+
+    private final List<DenialAuditSink> sinks;
+
+    private final Queue<DenialEvent> events = new ConcurrentLinkedQueue<>();
+
+    /**
+     * ConcurrentLinkedQueue.size 需要遍历，单独计数
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final Counter droppedCounter;
+
+    private final ScheduledExecutorService scheduler;
+
+    public DenialAuditor(PermissionProperties properties, ObjectProvider<DenialAuditSink> sinks,
+                         MeterRegistry meterRegistry) {
+        PermissionProperties.Audit config = properties.getAudit();
+        this.capacity = config.getCapacity();
+        this.sinks = sinks.orderedStream().collect(Collectors.toList());
+        this.droppedCounter = Counter.builder("permission.audit.dropped")
+                .description("待汇总事件过多而丢弃的拒绝事件数")
+                .register(meterRegistry);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "denial-auditor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long windowNanos = config.getWindow().toNanos();
+        scheduler.scheduleWithFixedDelay(this::flush, windowNanos, windowNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 在请求线程中调用
+     * @param principal 调用方标识
+     * @param resource 被访问的资源
+     */
+    public void record(Object principal, Object resource) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            droppedCounter.increment();
+            return;
+        }
+        events.offer(new DenialEvent(String.valueOf(principal), String.valueOf(resource), System.currentTimeMillis()));
+    }
+
+    private void flush() {
+        Map<AggregateKey, long[]> window = new HashMap<>();
+        DenialEvent event;
+        while ((event = events.poll()) != null) {
+            size.decrementAndGet();
+            // [次数, 第一次时间, 最后一次时间]
+            long[] stats = window.computeIfAbsent(new AggregateKey(event.principal, event.resource),
+                    key -> new long[]{0, Long.MAX_VALUE, Long.MIN_VALUE});
+            stats[0]++;
+            stats[1] = Math.min(stats[1], event.timestamp);
+            stats[2] = Math.max(stats[2], event.timestamp);
+        }
+        if (window.isEmpty()) {
+            return;
+        }
+
+        List<DenialAggregate> aggregates = new ArrayList<>(window.size());
+        window.forEach((key, stats) ->
+                aggregates.add(new DenialAggregate(key.principal, key.resource, stats[0], stats[1], stats[2])));
+        aggregates.sort(Comparator.comparingLong(DenialAggregate::getLastTimestamp));
+        for (DenialAuditSink sink : sinks) {
+            try {
+                sink.write(aggregates);
+            } catch (RuntimeException e) {
+                logger.error("{} 写入 {} 条拒绝审计失败", sink.getClass().getSimpleName(), aggregates.size(), e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        // 停止前把剩余的事件写完
+        flush();
+        for (DenialAuditSink sink : sinks) {
+            sink.close();
+        }
+    }
+
+    private static final class AggregateKey {
+
+        private final String principal;
+
+        private final String resource;
+
+        AggregateKey(String principal, String resource) {
+            this.principal = principal;
+            this.resource = resource;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof AggregateKey)) {
+                return false;
+            }
+            AggregateKey other = (AggregateKey) o;
+            return principal.equals(other.principal) && resource.equals(other.resource);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(principal, resource);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.audit;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage DenialCount 查询结果中的一项：principal 或 resource 及其被拒绝的总次数
+ */
+public class DenialCount {
+
+    private final String key;
+
+    private final long count;
+
+    public DenialCount(String key, long count) {
+        this.key = key;
+        this.count = count;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.audit;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage DenialEvent 一次被拒绝的权限校验，由请求线程创建
+ */
+final class DenialEvent {
+
+    final String principal;
+
+    final String resource;
+
+    final long timestamp;
+
+    DenialEvent(String principal, String resource, long timestamp) {
+        this.principal = principal;
+        this.resource = resource;
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.audit;
+
+import com.example.policy.PermissionProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage FileDenialAuditSink 把拒绝审计追加写入本地文件，每行一条：最后一次时间、principal、resource、次数，以制表符分隔
+ */
+@Component
+@ConditionalOnProperty(prefix = "permission.audit.file", name = "enabled", havingValue = "true")
+public class FileDenialAuditSink implements DenialAuditSink {
+
+    private final BufferedWriter writer;
+
+    public FileDenialAuditSink(PermissionProperties properties) throws IOException {
+        Path path = Paths.get(properties.getAudit().getFile().getPath());
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void write(List<DenialAggregate> aggregates) {
+        try {
+            for (DenialAggregate aggregate : aggregates) {
+                writer.write(Instant.ofEpochMilli(aggregate.getLastTimestamp()).toString());
+                writer.write('\t');
+                writer.write(aggregate.getPrincipal());
+                writer.write('\t');
+                writer.write(aggregate.getResource());
+                writer.write('\t');
+                writer.write(Long.toString(aggregate.getCount()));
+                writer.newLine();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.audit;
+
+import com.example.policy.PermissionProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.function.Function;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage InMemoryDenialAuditSink 在内存中保留最近 retention 内的拒绝审计，供 DenialAuditController 查询
+ * 汇总线程按时间顺序追加并淘汰过期数据，查询线程只遍历，不加锁；
+ * 每个窗口的条数随 principal 个数增长，总条数超过 maxEntries 时从最早的开始淘汰，内存占用有上限
+ */
+@Component
+@ConditionalOnProperty(prefix = "permission.audit.memory", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class InMemoryDenialAuditSink implements DenialAuditSink {
+
+    private final long retentionMillis;
+
+    private final int maxEntries;
+
+    private final Deque<DenialAggregate> aggregates = new ConcurrentLinkedDeque<>();
+
+    /**
+     * ConcurrentLinkedDeque.size 需要遍历，单独计数；只在汇总线程中修改
+     */
+    private int size;
+
+    private final Counter evictedCounter;
+
+    public InMemoryDenialAuditSink(PermissionProperties properties, MeterRegistry meterRegistry) {
+        PermissionProperties.MemorySink config = properties.getAudit().getMemory();
+        this.retentionMillis = config.getRetention().toMillis();
+        this.maxEntries = config.getMaxEntries();
+        this.evictedCounter = Counter.builder("permission.audit.memory.evicted")
+                .description("超过条数上限、未到保留时长就被淘汰的汇总条数")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void write(List<DenialAggregate> window) {
+        aggregates.addAll(window);
+        size += window.size();
+        long expireBefore = System.currentTimeMillis() - retentionMillis;
+        DenialAggregate oldest;
+        while ((oldest = aggregates.peekFirst()) != null && oldest.getLastTimestamp() < expireBefore) {
+            aggregates.pollFirst();
+            size--;
+        }
+        while (size > maxEntries && aggregates.pollFirst() != null) {
+            size--;
+            evictedCounter.increment();
+        }
+    }
+
+    /**
+     * @param range 时间范围，超过 retention 的部分查不到
+     * @param limit 最多返回的条数
+     * @return 被拒绝次数最多的 principal
+     */
+    public List<DenialCount> topPrincipals(Duration range, int limit) {
+        return top(range, limit, DenialAggregate::getPrincipal);
+    }
+
+    /**
+     * @param range 时间范围，超过 retention 的部分查不到
+     * @param limit 最多返回的条数
+     * @return 被拒绝次数最多的 resource
+     */
+    public List<DenialCount> topResources(Duration range, int limit) {
+        return top(range, limit, DenialAggregate::getResource);
+    }
+
+    private List<DenialCount> top(Duration range, int limit, Function<DenialAggregate, String> keyExtractor) {
+        long since = System.currentTimeMillis() - range.toMillis();
+        Map<String, Long> counts = new HashMap<>();
+        // 从最新的开始遍历，遇到早于 since 的即可停止
+        for (Iterator<DenialAggregate> it = aggregates.descendingIterator(); it.hasNext(); ) {
+            DenialAggregate aggregate = it.next();
+            if (aggregate.getLastTimestamp() < since) {
+                break;
+            }
+            counts.merge(keyExtractor.apply(aggregate), aggregate.getCount(), Long::sum);
+        }
+        List<DenialCount> result = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> result.add(new DenialCount(key, count)));
+        result.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.chain;
+
+import java.lang.reflect.Method;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage PermissionInvocation 在权限校验链各环节之间传递的调用信息
+ */
+public class PermissionInvocation {
+
+    private final Method method;
+
+    private Object[] args;
+
+    public PermissionInvocation(Method method, Object[] args) {
+        this.method = method;
+        this.args = args;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * @return 参数数组，已经是副本，可以直接修改
+     */
+    public Object[] getArgs() {
+        return args;
+    }
+
+    public void setArgs(Object[] args) {
+        this.args = args;
+    }
+}
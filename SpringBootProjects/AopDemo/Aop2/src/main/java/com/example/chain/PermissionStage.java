@@ -0,0 +1,35 @@
+package com.example.chain;
+
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage PermissionStage 权限校验链中的一个环节，注册为 Spring Bean 后按 @Order 顺序在同一个环绕通知中执行
+ * 与再写一个切面相比，不会多一层代理拦截器和 proceed 调用
+ */
+public interface PermissionStage {
+
+    /**
+     * 在方法第一次被调用时判断一次，结果随调用链一起缓存
+     * @return 该环节是否作用于这个方法
+     */
+    default boolean supports(Method method) {
+        return true;
+    }
+
+    /**
+     * @param invocation 当前调用，可以通过 setArgs 改写参数
+     * @return null 表示继续执行下一个环节；非 null 时不再执行后续环节和目标方法，直接作为返回值
+     */
+    Object apply(PermissionInvocation invocation);
+
+    /**
+     * @return 指标中使用的环节名称
+     */
+    default String name() {
+        return ClassUtils.getUserClass(getClass()).getSimpleName();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.chain;
+
+import com.example.support.MethodKeys;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage PermissionStageChain 依次执行所有 PermissionStage，任一环节返回非 null 即短路
+ * 每个方法适用的环节在第一次调用时确定并缓存；每个环节的调用次数和耗时记录在 permission.stage 指标中，
+ * 计数只做 LongAdder 累加，相邻环节共用一次 nanoTime，避免统计本身的开销超过省下的代理调用
+ */
+@Component
+public class PermissionStageChain {
+
+    private final List<PermissionStage> stages;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Method, ResolvedChain> chains = new ConcurrentHashMap<>();
+
+    /**
+     * @param stages 容器按 @Order 排好序的环节
+     */
+    public PermissionStageChain(List<PermissionStage> stages, MeterRegistry meterRegistry) {
+        this.stages = stages;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @return null 表示全部通过，应继续执行目标方法；否则为短路环节给出的返回值
+     */
+    public Object run(PermissionInvocation invocation) {
+        ResolvedChain chain = chains.get(invocation.getMethod());
+        if (chain == null) {
+            chain = chains.computeIfAbsent(invocation.getMethod(), this::resolve);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < chain.stages.length; i++) {
+            Object result = chain.stages[i].apply(invocation);
+            long end = System.nanoTime();
+            chain.stats[i].record(end - start);
+            start = end;
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    private ResolvedChain resolve(Method method) {
+        // 带参数类型，重载方法的环节指标不会注册到同一组标签上
+        String methodName = MethodKeys.of(method);
+        List<PermissionStage> applicable = new ArrayList<>();
+        List<StageStats> stats = new ArrayList<>();
+        for (PermissionStage stage : stages) {
+            if (stage.supports(method)) {
+                StageStats stageStats = new StageStats();
+                FunctionTimer.builder("permission.stage", stageStats,
+                                s -> s.count.sum(), s -> s.totalNanos.sum(), TimeUnit.NANOSECONDS)
+                        .description("权限校验链中每个环节的耗时")
+                        .tag("method", methodName)
+                        .tag("stage", stage.name())
+                        .register(meterRegistry);
+                applicable.add(stage);
+                stats.add(stageStats);
+            }
+        }
+        return new ResolvedChain(applicable.toArray(new PermissionStage[0]), stats.toArray(new StageStats[0]));
+    }
+
+    private static final class ResolvedChain {
+
+        private final PermissionStage[] stages;
+
+        private final StageStats[] stats;
+
+        ResolvedChain(PermissionStage[] stages, StageStats[] stats) {
+            this.stages = stages;
+            this.stats = stats;
+        }
+    }
+
+    private static final class StageStats {
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+        }
+    }
+}
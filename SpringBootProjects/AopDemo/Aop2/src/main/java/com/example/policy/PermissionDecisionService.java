@@ -0,0 +1,166 @@
+package com.example.policy;
+
+import com.example.PermissionAnnotation;
+import com.example.audit.DenialAuditor;
+import com.example.support.MethodKeys;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage PermissionDecisionService 执行 @PermissionAnnotation 的权限判定
+ * 每个方法的注解只编译一次；每次调用只绑定一次实参，判定结果按 (方法, principal, resource) 缓存，
+ * 先查缓存，命中时只计算 principal 和 resource，不执行判定表达式；
+ * 命中率见 cache.gets{cache=permission.decision}，未命中时的表达式执行耗时见 permission.policy.evaluate；
+ * 拒绝时交给 DenialAuditor 记录审计
+ */
+@Component
+public class PermissionDecisionService {
+
+    private static final String CACHE_NAME = "permission.decision";
+
+    private final PermissionPolicyEngine policyEngine;
+
+    private final DenialAuditor denialAuditor;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Method, MethodPolicy> policies = new ConcurrentHashMap<>();
+
+    private final Cache<DecisionKey, Boolean> decisions;
+
+    @Autowired
+    public PermissionDecisionService(PermissionPolicyEngine policyEngine, PermissionProperties properties,
+                                     DenialAuditor denialAuditor, MeterRegistry meterRegistry) {
+        this(policyEngine, properties, denialAuditor, meterRegistry, Ticker.systemTicker());
+    }
+
+    /**
+     * @param ticker 判定缓存过期使用的时钟
+     */
+    PermissionDecisionService(PermissionPolicyEngine policyEngine, PermissionProperties properties,
+                              DenialAuditor denialAuditor, MeterRegistry meterRegistry, Ticker ticker) {
+        this.policyEngine = policyEngine;
+        this.denialAuditor = denialAuditor;
+        this.meterRegistry = meterRegistry;
+        PermissionProperties.DecisionCache config = properties.getDecisionCache();
+        this.decisions = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getExpireAfterWrite())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, decisions, CACHE_NAME);
+    }
+
+    /**
+     * @param method 标注了 @PermissionAnnotation 的方法
+     * @param args 方法实参
+     * @return 是否放行
+     */
+    public boolean isAllowed(Method method, Object[] args) {
+        MethodPolicy methodPolicy = policies.get(method);
+        if (methodPolicy == null) {
+            methodPolicy = policies.computeIfAbsent(method, this::compile);
+        }
+        PermissionPolicy.Binding binding = methodPolicy.policy.bind(args);
+        DecisionKey key = new DecisionKey(methodPolicy, binding.principal(), binding.resource());
+        Boolean allowed = decisions.getIfPresent(key);
+        if (allowed == null) {
+            long start = System.nanoTime();
+            allowed = binding.evaluate();
+            methodPolicy.evaluateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            decisions.put(key, allowed);
+        }
+        if (!allowed) {
+            denialAuditor.record(key.principal, key.resource);
+        }
+        return allowed;
+    }
+
+    /**
+     * 策略依赖的数据变化后调用，清空所有缓存的判定结果
+     */
+    public void invalidateAll() {
+        decisions.invalidateAll();
+    }
+
+    private MethodPolicy compile(Method method) {
+        PermissionAnnotation annotation = AnnotatedElementUtils.findMergedAnnotation(method, PermissionAnnotation.class);
+        if (annotation == null) {
+            throw new IllegalArgumentException(method + " 没有标注 @PermissionAnnotation");
+        }
+        Timer timer = Timer.builder("permission.policy.evaluate")
+                .description("缓存未命中时执行权限表达式的耗时")
+                .tag("method", MethodKeys.of(method))
+                .register(meterRegistry);
+        return new MethodPolicy(policyEngine.compile(method, annotation), timer);
+    }
+
+    private static final class MethodPolicy {
+
+        private final PermissionPolicy policy;
+
+        private final Timer evaluateTimer;
+
+        MethodPolicy(PermissionPolicy policy, Timer evaluateTimer) {
+            this.policy = policy;
+            this.evaluateTimer = evaluateTimer;
+        }
+    }
+
+    /**
+     * 按 MethodPolicy 的对象身份区分方法，不同方法即使 principal、resource 相同也不会共用结果
+     */
+    private static final class DecisionKey {
+
+        private final MethodPolicy methodPolicy;
+
+        private final Object principal;
+
+        private final Object resource;
+
+        private final int hash;
+
+        DecisionKey(MethodPolicy methodPolicy, Object principal, Object resource) {
+            this.methodPolicy = methodPolicy;
+            this.principal = principal;
+            this.resource = resource;
+            this.hash = 31 * (31 * System.identityHashCode(methodPolicy) + Objects.hashCode(principal))
+                    + Objects.hashCode(resource);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DecisionKey)) {
+                return false;
+            }
+            DecisionKey other = (DecisionKey) o;
+            return methodPolicy == other.methodPolicy
+                    && Objects.equals(principal, other.principal)
+                    && Objects.equals(resource, other.resource);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.policy;
+
+import com.example.chain.PermissionInvocation;
+import com.example.chain.PermissionStage;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage PermissionDecisionStage 按 @PermissionAnnotation 的表达式校验，不通过时短路返回 403
+ */
+@Component
+@Order(100)
+public class PermissionDecisionStage implements PermissionStage {
+
+    private static final String DENIED = "{\"message\":\"illegal id\",\"code\":403}";
+
+    private final PermissionDecisionService permissionDecisionService;
+
+    public PermissionDecisionStage(PermissionDecisionService permissionDecisionService) {
+        this.permissionDecisionService = permissionDecisionService;
+    }
+
+    @Override
+    public Object apply(PermissionInvocation invocation) {
+        return permissionDecisionService.isAllowed(invocation.getMethod(), invocation.getArgs()) ? null : DENIED;
+    }
+}
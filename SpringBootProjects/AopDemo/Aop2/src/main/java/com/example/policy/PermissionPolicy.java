@@ -0,0 +1,35 @@
+package com.example.policy;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage PermissionPolicy 某个方法上 @PermissionAnnotation 编译后的结果
+ * 每次调用先用实参 bind 一次，同一次调用中计算 principal、resource 和判定共用绑定结果
+ */
+public interface PermissionPolicy {
+
+    /**
+     * @param args 被拦截方法的实参
+     * @return 本次调用的绑定结果，只在当前线程中使用
+     */
+    Binding bind(Object[] args);
+
+    interface Binding {
+
+        /**
+         * @return 调用方标识，作为判定缓存键的一部分
+         */
+        Object principal();
+
+        /**
+         * @return 被访问的资源，作为判定缓存键的一部分
+         */
+        Object resource();
+
+        /**
+         * 只在判定缓存未命中时调用
+         * @return 是否放行
+         */
+        boolean evaluate();
+    }
+}
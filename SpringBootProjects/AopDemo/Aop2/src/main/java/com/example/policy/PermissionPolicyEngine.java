@@ -0,0 +1,16 @@
+package com.example.policy;
+
+import com.example.PermissionAnnotation;
+
+import java.lang.reflect.Method;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage PermissionPolicyEngine 把 @PermissionAnnotation 编译为 PermissionPolicy，每个方法只调用一次
+ * 默认实现为 SpelPermissionPolicyEngine，替换时把自定义实现注册为 @Primary Bean
+ */
+public interface PermissionPolicyEngine {
+
+    PermissionPolicy compile(Method method, PermissionAnnotation annotation);
+}
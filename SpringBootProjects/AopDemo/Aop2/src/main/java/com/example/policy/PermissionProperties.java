@@ -0,0 +1,178 @@
+package com.example.policy;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage PermissionProperties 权限校验配置，前缀为 permission
+ */
+@Component
+@ConfigurationProperties(prefix = "permission")
+public class PermissionProperties {
+
+    private DecisionCache decisionCache = new DecisionCache();
+
+    private Audit audit = new Audit();
+
+    public DecisionCache getDecisionCache() {
+        return decisionCache;
+    }
+
+    public void setDecisionCache(DecisionCache decisionCache) {
+        this.decisionCache = decisionCache;
+    }
+
+    public Audit getAudit() {
+        return audit;
+    }
+
+    public void setAudit(Audit audit) {
+        this.audit = audit;
+    }
+
+    public static class DecisionCache {
+        /**
+         * 最多缓存的判定结果个数
+         */
+        private long maximumSize = 10000;
+
+        /**
+         * 判定结果写入后的有效期，策略依赖的数据变化后最迟在这段时间后生效
+         */
+        private Duration expireAfterWrite = Duration.ofSeconds(60);
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+    }
+
+    public static class Audit {
+        /**
+         * 待汇总的拒绝事件上限，超过后丢弃新事件并计入 permission.audit.dropped
+         */
+        private int capacity = 65536;
+
+        /**
+         * 汇总窗口，同一窗口内 principal、resource 相同的拒绝合并为一条
+         */
+        private Duration window = Duration.ofSeconds(1);
+
+        private FileSink file = new FileSink();
+
+        private MemorySink memory = new MemorySink();
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public FileSink getFile() {
+            return file;
+        }
+
+        public void setFile(FileSink file) {
+            this.file = file;
+        }
+
+        public MemorySink getMemory() {
+            return memory;
+        }
+
+        public void setMemory(MemorySink memory) {
+            this.memory = memory;
+        }
+    }
+
+    public static class FileSink {
+        /**
+         * 是否把汇总结果追加写入本地文件
+         */
+        private boolean enabled = false;
+
+        private String path = "audit/permission-denials.log";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+    }
+
+    public static class MemorySink {
+        /**
+         * 是否在内存中保留汇总结果，供 /audit/denials 查询
+         */
+        private boolean enabled = true;
+
+        /**
+         * 保留时长，也是查询时能指定的最长时间范围
+         */
+        private Duration retention = Duration.ofMinutes(60);
+
+        /**
+         * 最多保留的汇总条数，不同 principal 过多时先淘汰最早的，计入 permission.audit.memory.evicted
+         */
+        private int maxEntries = 100000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.policy;
+
+import com.example.PermissionAnnotation;
+import com.example.support.MethodKeys;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage SpelPermissionPolicyEngine 用 SpEL 实现的 PermissionPolicyEngine
+ * 表达式在编译时解析为语法树，使用 MIXED 模式，执行过一次后生成字节码，遇到无法编译的表达式时退回解释执行；
+ * 每次调用的 EvaluationContext 在第一次用到时创建，principal、resource、判定三者共用，未配置表达式时不创建
+ */
+@Component
+public class SpelPermissionPolicyEngine implements PermissionPolicyEngine {
+
+    private final ExpressionParser parser;
+
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    public SpelPermissionPolicyEngine() {
+        this.parser = new SpelExpressionParser(
+                new SpelParserConfiguration(SpelCompilerMode.MIXED, SpelPermissionPolicyEngine.class.getClassLoader()));
+    }
+
+    @Override
+    public PermissionPolicy compile(Method method, PermissionAnnotation annotation) {
+        String[] parameterNames = parameterNameDiscoverer.getParameterNames(method);
+        String[] indexNames = new String[method.getParameterCount()];
+        for (int i = 0; i < indexNames.length; i++) {
+            indexNames[i] = "p" + i;
+        }
+        String defaultResource = MethodKeys.of(method);
+        return new SpelPermissionPolicy(
+                indexNames,
+                parameterNames == null ? new String[0] : parameterNames,
+                parser.parseExpression(annotation.value()),
+                parseOptional(annotation.principal()),
+                parseOptional(annotation.resource()),
+                defaultResource);
+    }
+
+    private Expression parseOptional(String expression) {
+        return StringUtils.hasText(expression) ? parser.parseExpression(expression) : null;
+    }
+
+    private static final class SpelPermissionPolicy implements PermissionPolicy {
+
+        private final String[] indexNames;
+
+        private final String[] parameterNames;
+
+        private final Expression condition;
+
+        private final Expression principal;
+
+        private final Expression resource;
+
+        private final String defaultResource;
+
+        SpelPermissionPolicy(String[] indexNames, String[] parameterNames, Expression condition,
+                             Expression principal, Expression resource, String defaultResource) {
+            this.indexNames = indexNames;
+            this.parameterNames = parameterNames;
+            this.condition = condition;
+            this.principal = principal;
+            this.resource = resource;
+            this.defaultResource = defaultResource;
+        }
+
+        @Override
+        public Binding bind(Object[] args) {
+            return new SpelBinding(args);
+        }
+
+        private final class SpelBinding implements Binding {
+
+            private final Object[] args;
+
+            private EvaluationContext context;
+
+            SpelBinding(Object[] args) {
+                this.args = args;
+            }
+
+            @Override
+            public Object principal() {
+                return principal == null ? null : principal.getValue(context());
+            }
+
+            @Override
+            public Object resource() {
+                return resource == null ? defaultResource : resource.getValue(context());
+            }
+
+            @Override
+            public boolean evaluate() {
+                return Boolean.TRUE.equals(condition.getValue(context(), Boolean.class));
+            }
+
+            private EvaluationContext context() {
+                if (context == null) {
+                    StandardEvaluationContext evaluationContext = new StandardEvaluationContext();
+                    for (int i = 0; i < indexNames.length; i++) {
+                        evaluationContext.setVariable(indexNames[i], args[i]);
+                        if (i < parameterNames.length) {
+                            evaluationContext.setVariable(parameterNames[i], args[i]);
+                        }
+                    }
+                    context = evaluationContext;
+                }
+                return context;
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.support;
+
+import java.lang.reflect.Method;
+import java.util.StringJoiner;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage MethodKeys 指标 method 标签的取值：类名.方法名(参数类型,...)
+ * 带上参数类型，重载方法各自有独立的指标，不会注册到同一组标签上
+ */
+public final class MethodKeys {
+
+    private MethodKeys() {
+    }
+
+    public static String of(Method method) {
+        StringJoiner parameters = new StringJoiner(",", "(", ")");
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            parameters.add(parameterType.getSimpleName());
+        }
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName() + parameters;
+    }
+}
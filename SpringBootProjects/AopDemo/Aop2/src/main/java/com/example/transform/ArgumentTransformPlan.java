@@ -0,0 +1,49 @@
+package com.example.transform;
+
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage ArgumentTransformPlan 某个方法的参数改写计划，每个参数位置对应的改写器在第一次调用时确定
+ */
+final class ArgumentTransformPlan {
+
+    static final ArgumentTransformPlan EMPTY = new ArgumentTransformPlan(new ArgumentTransformer<?>[0], null);
+
+    /**
+     * 下标为参数位置，不需要改写的位置为 null
+     */
+    private final ArgumentTransformer<Object>[] transformers;
+
+    private final Timer timer;
+
+    @SuppressWarnings("unchecked")
+    ArgumentTransformPlan(ArgumentTransformer<?>[] transformers, Timer timer) {
+        this.transformers = (ArgumentTransformer<Object>[]) transformers;
+        this.timer = timer;
+    }
+
+    boolean isEmpty() {
+        return timer == null;
+    }
+
+    /**
+     * 直接在 args 上替换，调用方传入的应是参数数组的副本
+     */
+    Object[] apply(Object[] args) {
+        if (isEmpty()) {
+            return args;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < transformers.length; i++) {
+            if (transformers[i] != null && args[i] != null) {
+                args[i] = transformers[i].transform(args[i]);
+            }
+        }
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return args;
+    }
+}
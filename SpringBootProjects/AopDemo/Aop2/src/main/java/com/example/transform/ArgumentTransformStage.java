@@ -0,0 +1,28 @@
+package com.example.transform;
+
+import com.example.chain.PermissionInvocation;
+import com.example.chain.PermissionStage;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage ArgumentTransformStage 校验通过后改写参数，改写逻辑见 ArgumentTransformerConfig
+ */
+@Component
+@Order(200)
+public class ArgumentTransformStage implements PermissionStage {
+
+    private final ArgumentTransformerRegistry argumentTransformerRegistry;
+
+    public ArgumentTransformStage(ArgumentTransformerRegistry argumentTransformerRegistry) {
+        this.argumentTransformerRegistry = argumentTransformerRegistry;
+    }
+
+    @Override
+    public Object apply(PermissionInvocation invocation) {
+        invocation.setArgs(argumentTransformerRegistry.transform(invocation.getMethod(), invocation.getArgs()));
+        return null;
+    }
+}
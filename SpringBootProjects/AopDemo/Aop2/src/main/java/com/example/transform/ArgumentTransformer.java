@@ -0,0 +1,37 @@
+package com.example.transform;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage ArgumentTransformer 某一类型参数的改写逻辑，注册为 Spring Bean 后由 ArgumentTransformerRegistry 按类型查找
+ * 实现类应返回新对象（例如通过复制构造），不要修改调用方传入的对象
+ */
+public interface ArgumentTransformer<T> {
+
+    /**
+     * @return 能处理的参数类型
+     */
+    Class<T> type();
+
+    /**
+     * @param source 原始参数，不为 null
+     * @return 改写后的参数
+     */
+    T transform(T source);
+
+    static <T> ArgumentTransformer<T> of(Class<T> type, UnaryOperator<T> transformer) {
+        return new ArgumentTransformer<T>() {
+            @Override
+            public Class<T> type() {
+                return type;
+            }
+
+            @Override
+            public T transform(T source) {
+                return transformer.apply(source);
+            }
+        };
+    }
+}
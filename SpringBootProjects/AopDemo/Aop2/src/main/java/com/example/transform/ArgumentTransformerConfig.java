@@ -0,0 +1,27 @@
+package com.example.transform;
+
+import com.example.User;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage ArgumentTransformerConfig 权限校验通过后对参数的改写
+ */
+@Configuration(proxyBeanMethods = false)
+public class ArgumentTransformerConfig {
+
+    /**
+     * 校验通过的 User 参数改为 id=2、name=zufeng，其余字段保持不变
+     */
+    @Bean
+    public ArgumentTransformer<User> permissionUserTransformer() {
+        return ArgumentTransformer.of(User.class, source -> {
+            User user = new User(source);
+            user.setId(2);
+            user.setName("zufeng");
+            return user;
+        });
+    }
+}
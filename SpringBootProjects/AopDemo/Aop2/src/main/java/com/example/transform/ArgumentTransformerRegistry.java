@@ -0,0 +1,69 @@
+package com.example.transform;
+
+import com.example.support.MethodKeys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author chenzufeng
+ * @date 2022/4/4
+ * @usage ArgumentTransformerRegistry 按参数类型登记的改写器，切面通过 transform 改写被拦截方法的参数
+ * 按方法缓存改写计划，每次调用只按下标取改写器，不做类型查找；每个方法的改写耗时记录在 aop.argument.transform 指标中
+ */
+@Component
+public class ArgumentTransformerRegistry {
+
+    private final Map<Class<?>, ArgumentTransformer<?>> transformers = new HashMap<>();
+
+    private final Map<Method, ArgumentTransformPlan> plans = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+
+    public ArgumentTransformerRegistry(ObjectProvider<ArgumentTransformer<?>> transformers, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        transformers.orderedStream().forEach(transformer -> {
+            ArgumentTransformer<?> previous = this.transformers.putIfAbsent(transformer.type(), transformer);
+            if (previous != null) {
+                throw new IllegalStateException(transformer.type().getName() + " 注册了多个 ArgumentTransformer");
+            }
+        });
+    }
+
+    /**
+     * @param method 被拦截的方法
+     * @param args 参数数组的副本，会被直接修改
+     * @return 改写后的参数
+     */
+    public Object[] transform(Method method, Object[] args) {
+        ArgumentTransformPlan plan = plans.get(method);
+        if (plan == null) {
+            plan = plans.computeIfAbsent(method, this::createPlan);
+        }
+        return plan.apply(args);
+    }
+
+    private ArgumentTransformPlan createPlan(Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        ArgumentTransformer<?>[] planned = new ArgumentTransformer<?>[parameterTypes.length];
+        boolean empty = true;
+        for (int i = 0; i < parameterTypes.length; i++) {
+            planned[i] = transformers.get(parameterTypes[i]);
+            empty &= planned[i] == null;
+        }
+        if (empty) {
+            return ArgumentTransformPlan.EMPTY;
+        }
+        Timer timer = Timer.builder("aop.argument.transform")
+                .description("切面改写方法参数的耗时")
+                .tag("method", MethodKeys.of(method))
+                .register(meterRegistry);
+        return new ArgumentTransformPlan(planned, timer);
+    }
+}
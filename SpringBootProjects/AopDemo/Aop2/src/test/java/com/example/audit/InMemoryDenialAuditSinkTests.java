@@ -0,0 +1,67 @@
+package com.example.audit;
+
+import com.example.policy.PermissionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InMemoryDenialAuditSinkTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private InMemoryDenialAuditSink sink(int maxEntries, Duration retention) {
+        PermissionProperties properties = new PermissionProperties();
+        properties.getAudit().getMemory().setMaxEntries(maxEntries);
+        properties.getAudit().getMemory().setRetention(retention);
+        return new InMemoryDenialAuditSink(properties, meterRegistry);
+    }
+
+    private static DenialAggregate aggregate(String principal, long timestamp) {
+        return new DenialAggregate(principal, "PermissionController.getUser(User)", 1, timestamp, timestamp);
+    }
+
+    private static long total(List<DenialCount> counts) {
+        return counts.stream().mapToLong(DenialCount::getCount).sum();
+    }
+
+    @Test
+    void evictsOldestEntriesBeyondMaxEntries() {
+        InMemoryDenialAuditSink sink = sink(3, Duration.ofMinutes(60));
+        long now = System.currentTimeMillis();
+        // 一个窗口内大量不同 principal
+        List<DenialAggregate> window = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            window.add(aggregate("user-" + i, now));
+        }
+        sink.write(window);
+        sink.write(Collections.singletonList(aggregate("user-5", now)));
+
+        List<DenialCount> principals = sink.topPrincipals(Duration.ofMinutes(60), 10);
+        assertEquals(3, principals.size());
+        assertEquals(Arrays.asList("user-3", "user-4", "user-5"),
+                principals.stream().map(DenialCount::getKey).sorted().collect(Collectors.toList()));
+        assertEquals(3, meterRegistry.get("permission.audit.memory.evicted").counter().count());
+    }
+
+    @Test
+    void dropsEntriesOlderThanRetention() {
+        InMemoryDenialAuditSink sink = sink(100, Duration.ofMinutes(5));
+        long now = System.currentTimeMillis();
+        sink.write(Arrays.asList(aggregate("user-1", now - Duration.ofMinutes(10).toMillis()),
+                aggregate("user-2", now - Duration.ofMinutes(6).toMillis())));
+        sink.write(Collections.singletonList(aggregate("user-3", now)));
+
+        assertEquals(1, total(sink.topPrincipals(Duration.ofMinutes(60), 10)));
+        assertEquals(1, total(sink.topResources(Duration.ofMinutes(60), 10)));
+        // 按保留时长淘汰的不计入 evicted
+        assertEquals(0, meterRegistry.get("permission.audit.memory.evicted").counter().count());
+    }
+}
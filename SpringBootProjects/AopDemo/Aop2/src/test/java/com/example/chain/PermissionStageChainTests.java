@@ -0,0 +1,65 @@
+package com.example.chain;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PermissionStageChainTests {
+
+    static class UserController {
+        public void getUser(String name) {
+        }
+
+        public void getUser(String name, int id) {
+        }
+    }
+
+    static class DenyingStage implements PermissionStage {
+        @Override
+        public boolean supports(Method method) {
+            return method.getParameterCount() == 2;
+        }
+
+        @Override
+        public Object apply(PermissionInvocation invocation) {
+            return "denied";
+        }
+    }
+
+    static class PassingStage implements PermissionStage {
+        @Override
+        public Object apply(PermissionInvocation invocation) {
+            return null;
+        }
+    }
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final PermissionStageChain chain = new PermissionStageChain(
+            Arrays.asList(new DenyingStage(), new PassingStage()), meterRegistry);
+
+    private double calls(String method, String stage) {
+        return meterRegistry.get("permission.stage").tag("method", method).tag("stage", stage)
+                .functionTimer().count();
+    }
+
+    @Test
+    void overloadsResolveAndReportTheirOwnStages() throws NoSuchMethodException {
+        Method oneArg = UserController.class.getMethod("getUser", String.class);
+        Method twoArgs = UserController.class.getMethod("getUser", String.class, int.class);
+
+        assertNull(chain.run(new PermissionInvocation(oneArg, new Object[]{"a"})));
+        assertNull(chain.run(new PermissionInvocation(oneArg, new Object[]{"a"})));
+        assertEquals("denied", chain.run(new PermissionInvocation(twoArgs, new Object[]{"a", 1})));
+
+        assertEquals(2, calls("UserController.getUser(String)", "PassingStage"));
+        assertEquals(1, calls("UserController.getUser(String,int)", "DenyingStage"));
+        // 短路后不再执行后续环节
+        assertEquals(0, calls("UserController.getUser(String,int)", "PassingStage"));
+    }
+}
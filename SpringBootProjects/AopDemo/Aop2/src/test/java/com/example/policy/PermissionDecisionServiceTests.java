@@ -0,0 +1,118 @@
+package com.example.policy;
+
+import com.example.PermissionAnnotation;
+import com.example.User;
+import com.example.audit.DenialAuditSink;
+import com.example.audit.DenialAuditor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PermissionDecisionServiceTests {
+
+    static class UserController {
+        @PermissionAnnotation(value = "#user.id >= 0", principal = "#user.id")
+        public void getUser(User user) {
+        }
+
+        @PermissionAnnotation(value = "#p1 >= 0", principal = "#p1")
+        public void getUser(User user, int id) {
+        }
+    }
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final PermissionProperties properties = new PermissionProperties();
+
+    private final DenialAuditor denialAuditor = new DenialAuditor(properties,
+            new StaticListableBeanFactory().getBeanProvider(DenialAuditSink.class), meterRegistry);
+
+    private final PermissionDecisionService service = newService();
+
+    private PermissionDecisionService newService() {
+        properties.getDecisionCache().setExpireAfterWrite(Duration.ofSeconds(60));
+        return new PermissionDecisionService(new SpelPermissionPolicyEngine(), properties, denialAuditor,
+                meterRegistry, nanos::get);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        denialAuditor.destroy();
+    }
+
+    private static User user(int id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+
+    private static Method getUser() throws NoSuchMethodException {
+        return UserController.class.getMethod("getUser", User.class);
+    }
+
+    private long evaluations(String method) {
+        return meterRegistry.get("permission.policy.evaluate").tag("method", method).timer().count();
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "permission.decision").tag("result", result)
+                .functionCounter().count();
+    }
+
+    @Test
+    void evaluatesOnMissAndReusesDecisionOnHit() throws NoSuchMethodException {
+        assertTrue(service.isAllowed(getUser(), new Object[]{user(1)}));
+        assertTrue(service.isAllowed(getUser(), new Object[]{user(1)}));
+        assertFalse(service.isAllowed(getUser(), new Object[]{user(-1)}));
+        assertFalse(service.isAllowed(getUser(), new Object[]{user(-1)}));
+
+        assertEquals(2, evaluations("UserController.getUser(User)"));
+        assertEquals(2, cacheGets("hit"));
+        assertEquals(2, cacheGets("miss"));
+    }
+
+    @Test
+    void evaluatesAgainAfterExpiry() throws NoSuchMethodException {
+        assertTrue(service.isAllowed(getUser(), new Object[]{user(1)}));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        assertTrue(service.isAllowed(getUser(), new Object[]{user(1)}));
+        assertEquals(1, evaluations("UserController.getUser(User)"));
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertTrue(service.isAllowed(getUser(), new Object[]{user(1)}));
+        assertEquals(2, evaluations("UserController.getUser(User)"));
+    }
+
+    @Test
+    void invalidateAllForcesEvaluation() throws NoSuchMethodException {
+        service.isAllowed(getUser(), new Object[]{user(1)});
+        service.invalidateAll();
+        service.isAllowed(getUser(), new Object[]{user(1)});
+
+        assertEquals(2, evaluations("UserController.getUser(User)"));
+    }
+
+    @Test
+    void overloadsKeepSeparateDecisionsAndTimers() throws NoSuchMethodException {
+        Method overload = UserController.class.getMethod("getUser", User.class, int.class);
+
+        assertTrue(service.isAllowed(getUser(), new Object[]{user(1)}));
+        // principal 相同，但属于另一个方法，不能用上面的结果
+        assertFalse(service.isAllowed(overload, new Object[]{user(1), -1}));
+
+        assertEquals(1, evaluations("UserController.getUser(User)"));
+        assertEquals(1, evaluations("UserController.getUser(User,int)"));
+    }
+}
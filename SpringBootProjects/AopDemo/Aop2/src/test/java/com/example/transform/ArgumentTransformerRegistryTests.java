@@ -0,0 +1,116 @@
+package com.example.transform;
+
+import com.example.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArgumentTransformerRegistryTests {
+
+    static class UserService {
+        public void find(User user) {
+        }
+
+        public void find(User user, String reason) {
+        }
+
+        public void greet(String name) {
+        }
+    }
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private static ArgumentTransformer<User> renamingTransformer() {
+        return ArgumentTransformer.of(User.class, source -> {
+            User user = new User(source);
+            user.setName("zufeng");
+            return user;
+        });
+    }
+
+    private static ObjectProvider<ArgumentTransformer<?>> provider(ArgumentTransformer<?>... transformers) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        for (int i = 0; i < transformers.length; i++) {
+            beanFactory.addBean("transformer" + i, transformers[i]);
+        }
+        @SuppressWarnings("unchecked")
+        ObjectProvider<ArgumentTransformer<?>> provider =
+                (ObjectProvider<ArgumentTransformer<?>>) (ObjectProvider<?>) beanFactory.getBeanProvider(ArgumentTransformer.class);
+        return provider;
+    }
+
+    private static User user(int id, String name) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        return user;
+    }
+
+    @Test
+    void rewritesOnlyParametersWithARegisteredTransformer() throws NoSuchMethodException {
+        ArgumentTransformerRegistry registry = new ArgumentTransformerRegistry(provider(renamingTransformer()), meterRegistry);
+        Method find = UserService.class.getMethod("find", User.class, String.class);
+        User original = user(1, "chenzufeng");
+        Object[] args = {original, "audit"};
+
+        Object[] transformed = registry.transform(find, args);
+
+        assertSame(args, transformed);
+        User rewritten = (User) transformed[0];
+        assertNotSame(original, rewritten);
+        assertEquals(1, rewritten.getId());
+        assertEquals("zufeng", rewritten.getName());
+        assertEquals("audit", transformed[1]);
+        // 调用方传入的对象不变
+        assertEquals("chenzufeng", original.getName());
+    }
+
+    @Test
+    void skipsNullArguments() throws NoSuchMethodException {
+        ArgumentTransformerRegistry registry = new ArgumentTransformerRegistry(provider(renamingTransformer()), meterRegistry);
+        Method find = UserService.class.getMethod("find", User.class);
+
+        Object[] transformed = registry.transform(find, new Object[]{null});
+
+        assertNull(transformed[0]);
+    }
+
+    @Test
+    void methodsWithoutTransformableParametersGetTheEmptyPlan() throws NoSuchMethodException {
+        ArgumentTransformerRegistry registry = new ArgumentTransformerRegistry(provider(renamingTransformer()), meterRegistry);
+        Method greet = UserService.class.getMethod("greet", String.class);
+        Object[] args = {"chenzufeng"};
+
+        assertSame(args, registry.transform(greet, args));
+        assertEquals("chenzufeng", args[0]);
+        assertTrue(meterRegistry.find("aop.argument.transform").timers().isEmpty());
+    }
+
+    @Test
+    void overloadsRecordSeparateTimers() throws NoSuchMethodException {
+        ArgumentTransformerRegistry registry = new ArgumentTransformerRegistry(provider(renamingTransformer()), meterRegistry);
+
+        registry.transform(UserService.class.getMethod("find", User.class), new Object[]{user(1, "a")});
+        registry.transform(UserService.class.getMethod("find", User.class, String.class), new Object[]{user(1, "a"), "b"});
+        registry.transform(UserService.class.getMethod("find", User.class, String.class), new Object[]{user(1, "a"), "b"});
+
+        assertEquals(1, meterRegistry.get("aop.argument.transform").tag("method", "UserService.find(User)").timer().count());
+        assertEquals(2, meterRegistry.get("aop.argument.transform").tag("method", "UserService.find(User,String)").timer().count());
+    }
+
+    @Test
+    void rejectsTwoTransformersForTheSameType() {
+        assertThrows(IllegalStateException.class,
+                () -> new ArgumentTransformerRegistry(provider(renamingTransformer(), renamingTransformer()), meterRegistry));
+    }
+}
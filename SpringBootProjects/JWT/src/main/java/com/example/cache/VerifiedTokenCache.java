@@ -0,0 +1,179 @@
+package com.example.cache;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.config.JwtProperties;
+import com.example.key.JwtKeyRing;
+import com.example.principal.JwtPrincipal;
+import com.example.service.TokenService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/17
+ * @usage VerifiedTokenCache 已通过验证的 token，同一个 token 在过期前再次出现时不再解析和计算 HMAC
+ * 以 token 的 64 位哈希为键，命中后再比较完整 token，哈希冲突时按未命中处理；缓存项在 token 的 exp 时刻过期。
+ * 指标：命中率见 cache.gets{cache=jwt.verified}，未命中时的验证耗时见 jwt.verify，命中省下的验证时间见 jwt.verify.saved
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final String CACHE_NAME = "jwt.verified";
+
+    private final TokenService tokenService;
+
+    private final Cache<Long, VerifiedToken> cache;
+
+    private final Timer verifyTimer;
+
+    /**
+     * 没有 exp 的 token 最多缓存的时间
+     */
+    private final long maxTtlNanos;
+
+    public VerifiedTokenCache(TokenService tokenService, JwtProperties jwtProperties, MeterRegistry meterRegistry) {
+        this.tokenService = tokenService;
+        this.maxTtlNanos = TimeUnit.MINUTES.toNanos(jwtProperties.getExpireMinutes());
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(jwtProperties.getCache().getMaximumSize())
+                .expireAfter(new UntilExpiresAt())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.verifyTimer = Timer.builder("jwt.verify")
+                .description("缓存未命中时验证 token 的耗时")
+                .register(meterRegistry);
+        FunctionCounter.builder("jwt.verify.saved", this, VerifiedTokenCache::savedSeconds)
+                .description("缓存命中次数乘以平均验证耗时，即省下的验证时间")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 密钥环中删除或替换公钥后，用该 kid 验证过的 token 不再使用缓存结果
+     * @param keyRing 密钥环
+     */
+    @Autowired(required = false)
+    public void watchKeyRing(JwtKeyRing keyRing) {
+        keyRing.addChangeListener(keyIds -> evictIf(decodedJWT -> keyIds.contains(decodedJWT.getKeyId())));
+    }
+
+    /**
+     * 验证 token，已验证过且未过期的直接返回之前的结果
+     * @param token token
+     * @return 解码后的token
+     */
+    public DecodedJWT verify(String token) {
+        return lookup(token).decodedJWT;
+    }
+
+    /**
+     * 验证 token 并返回登录用户，已验证过且未过期的直接返回之前提取的结果
+     * @param token token
+     * @return 登录用户
+     */
+    public JwtPrincipal authenticate(String token) {
+        return lookup(token).principal;
+    }
+
+    private VerifiedToken lookup(String token) {
+        long key = hash(token);
+        VerifiedToken verified = cache.getIfPresent(key);
+        if (verified != null && verified.token.equals(token)) {
+            return verified;
+        }
+
+        long start = System.nanoTime();
+        DecodedJWT decodedJWT = tokenService.verifyToken(token);
+        verified = new VerifiedToken(token, decodedJWT, JwtPrincipal.from(decodedJWT));
+        verifyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        cache.put(key, verified);
+        return verified;
+    }
+
+    /**
+     * 移除该 token 的缓存验证结果，之后再出现的同一 token 会重新走完整验证。
+     * 只影响本节点的缓存，不会让 token 失效；吊销 token 使用 TokenRevocationService
+     * @param token token
+     */
+    public void evict(String token) {
+        long key = hash(token);
+        VerifiedToken verified = cache.getIfPresent(key);
+        if (verified != null && verified.token.equals(token)) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * 按条件批量移除缓存的验证结果，例如某个 kid 签发的全部 token；同样不会让 token 失效
+     * @param condition 返回 true 的缓存项被移除
+     */
+    public void evictIf(Predicate<DecodedJWT> condition) {
+        cache.asMap().values().removeIf(verified -> condition.test(verified.decodedJWT));
+    }
+
+    private double savedSeconds() {
+        return cache.stats().hitCount() * verifyTimer.mean(TimeUnit.SECONDS);
+    }
+
+    /**
+     * FNV-1a 64 位哈希，token 只含 ASCII 字符
+     */
+    static long hash(String token) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < token.length(); i++) {
+            hash ^= token.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static final class VerifiedToken {
+
+        private final String token;
+
+        private final DecodedJWT decodedJWT;
+
+        private final JwtPrincipal principal;
+
+        VerifiedToken(String token, DecodedJWT decodedJWT, JwtPrincipal principal) {
+            this.token = token;
+            this.decodedJWT = decodedJWT;
+            this.principal = principal;
+        }
+    }
+
+    private final class UntilExpiresAt implements Expiry<Long, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(Long key, VerifiedToken value, long currentTime) {
+            Date expiresAt = value.decodedJWT.getExpiresAt();
+            if (expiresAt == null) {
+                return maxTtlNanos;
+            }
+            long remainingMillis = expiresAt.getTime() - System.currentTimeMillis();
+            return Math.max(0, Math.min(maxTtlNanos, TimeUnit.MILLISECONDS.toNanos(remainingMillis)));
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/17
+ * @usage JwtProperties token 配置，前缀为 jwt
+ */
+@Component
+@ConfigurationProperties(prefix = "jwt")
+public class JwtProperties {
+    /**
+     * 签发 token 使用的算法：HS256、RS256 或 ES256
+     */
+    private String algorithm = "HS256";
+
+    /**
+     * HS256 签名密钥，只用 RS256 / ES256 验证的节点可以不配置
+     */
+    private String secret;
+
+    /**
+     * token 有效时间，单位分钟
+     */
+    private int expireMinutes = 10;
+
+    private Cache cache = new Cache();
+
+    private Keys keys = new Keys();
+
+    private Revocation revocation = new Revocation();
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+    }
+
+    public int getExpireMinutes() {
+        return expireMinutes;
+    }
+
+    public void setExpireMinutes(int expireMinutes) {
+        this.expireMinutes = expireMinutes;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public void setCache(Cache cache) {
+        this.cache = cache;
+    }
+
+    public Keys getKeys() {
+        return keys;
+    }
+
+    public void setKeys(Keys keys) {
+        this.keys = keys;
+    }
+
+    public Revocation getRevocation() {
+        return revocation;
+    }
+
+    public void setRevocation(Revocation revocation) {
+        this.revocation = revocation;
+    }
+
+    public static class Cache {
+        /**
+         * 已验证 token 的最大缓存个数
+         */
+        private long maximumSize = 100000;
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+    }
+
+    public static class Keys {
+        /**
+         * RS256 / ES256 密钥目录，存放 {kid}.public.pem 和 {kid}.private.pem，为空时不启用
+         */
+        private String directory;
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+    }
+
+    public static class Revocation {
+        /**
+         * Bloom 过滤器每个桶覆盖的 token 过期时间段，单位分钟
+         */
+        private int bucketMinutes = 1;
+
+        /**
+         * 每个桶预计容纳的吊销数量
+         */
+        private int expectedPerBucket = 10000;
+
+        /**
+         * 桶内数量不超过 expectedPerBucket 时的误判率
+         */
+        private double falsePositiveRate = 0.01;
+
+        /**
+         * 吊销记录文件，为空时只保存在内存中
+         */
+        private String file;
+
+        public int getBucketMinutes() {
+            return bucketMinutes;
+        }
+
+        public void setBucketMinutes(int bucketMinutes) {
+            this.bucketMinutes = bucketMinutes;
+        }
+
+        public int getExpectedPerBucket() {
+            return expectedPerBucket;
+        }
+
+        public void setExpectedPerBucket(int expectedPerBucket) {
+            this.expectedPerBucket = expectedPerBucket;
+        }
+
+        public double getFalsePositiveRate() {
+            return falsePositiveRate;
+        }
+
+        public void setFalsePositiveRate(double falsePositiveRate) {
+            this.falsePositiveRate = falsePositiveRate;
+        }
+
+        public String getFile() {
+            return file;
+        }
+
+        public void setFile(String file) {
+            this.file = file;
+        }
+    }
+}
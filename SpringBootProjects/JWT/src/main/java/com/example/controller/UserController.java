@@ -1,10 +1,11 @@
 package com.example.controller;
 
-import com.auth0.jwt.interfaces.DecodedJWT;
 import com.example.constants.ResultConstants;
 import com.example.entity.User;
+import com.example.principal.JwtPrincipal;
+import com.example.service.TokenRevocationService;
+import com.example.service.TokenService;
 import com.example.service.UserService;
-import com.example.utils.JwtUtil;
 import com.example.utils.Result;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -12,8 +13,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
-
-import javax.servlet.http.HttpServletRequest;
+import springfox.documentation.annotations.ApiIgnore;
 
 /**
  * @author chenzufeng
@@ -29,12 +29,18 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @PostMapping("/login")
     @ApiOperation(value = "login")
     public Result login(@RequestBody User user) {
         User userDb = userService.login(user);
         if (userDb != null) {
-            String token = JwtUtil.getToken(userDb);
+            String token = tokenService.createToken(userDb);
             return Result.success(ResultConstants.Constants.CODE_SUCCESS, "登录成功！", token);
         }
         return Result.fail(ResultConstants.Constants.CODE_FAIL, "登录失败！");
@@ -42,14 +48,18 @@ public class UserController {
 
     @GetMapping("/test")
     @ApiOperation(value = "AuthorizationTest")
-    public Result test(HttpServletRequest request) {
-        String token = request.getHeader("Authorization");
-        DecodedJWT decodedJWT = JwtUtil.verifyToken(token);
-        Integer id = decodedJWT.getClaim("id").asInt();
-        // decodedJWT.getClaim("password").asString()会使得userName为空
-        String userName = decodedJWT.getClaims().get("userName").asString();
-        String password = decodedJWT.getClaims().get("password").asString();
-        logger.info("用户ID：{}， 用户名：{}，用户密码：{}", id, userName, password);
+    public Result test(@ApiIgnore JwtPrincipal principal) {
+        // token 已在 JwtInterceptor 中验证，这里直接使用提取好的登录用户
+        logger.info("用户ID：{}， 用户名：{}", principal.getId(), principal.getUserName());
         return Result.success("请求成功！");
     }
+
+    @PostMapping("/logout")
+    @ApiOperation(value = "logout")
+    public Result logout(@ApiIgnore JwtPrincipal principal, @RequestHeader("Authorization") String token) {
+        // token 在过期前失效，之后使用它的请求在 JwtInterceptor 中被拒绝
+        tokenRevocationService.revoke(token);
+        logger.info("用户ID：{} 已注销", principal.getId());
+        return Result.success("注销成功！");
+    }
 }
@@ -1,19 +1,32 @@
 package com.example.interceptor;
 
+import com.example.principal.JwtPrincipalArgumentResolver;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 /**
  * @author chenzufeng
  * @date 2021/11/17
  */
 @Configuration
 public class InterceptorConfig implements WebMvcConfigurer {
+    @Autowired
+    private JwtInterceptor jwtInterceptor;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(new JwtInterceptor())
-                .addPathPatterns("/user/test")
+        registry.addInterceptor(jwtInterceptor)
+                .addPathPatterns("/user/test", "/user/logout")
                 .excludePathPatterns("/user/login");
     }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new JwtPrincipalArgumentResolver());
+    }
 }
@@ -4,9 +4,13 @@ import com.auth0.jwt.exceptions.InvalidClaimException;
 import com.auth0.jwt.exceptions.SignatureVerificationException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
 import com.example.exception.CustomException;
-import com.example.utils.JwtUtil;
+import com.example.principal.JwtPrincipal;
+import com.example.cache.VerifiedTokenCache;
+import com.example.service.TokenRevocationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 import javax.servlet.http.HttpServletRequest;
@@ -16,19 +20,26 @@ import javax.servlet.http.HttpServletResponse;
  * @author chenzufeng
  * @date 2021/11/17
  */
+@Component
 public class JwtInterceptor implements HandlerInterceptor {
 
     public static final Logger logger = LoggerFactory.getLogger(JwtInterceptor.class);
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         // 获取请求头中的token
         String token = request.getHeader("Authorization");
         logger.info("token为：{}", token);
 
+        JwtPrincipal principal;
         try {
-            JwtUtil.verifyToken(token);
-            return true;
+            principal = verifiedTokenCache.authenticate(token);
         } catch (SignatureVerificationException e) {
             e.printStackTrace();
             throw new CustomException("签名不一致！");
@@ -42,5 +53,13 @@ public class JwtInterceptor implements HandlerInterceptor {
             e.printStackTrace();
             throw new CustomException("token无效！");
         }
+
+        // 缓存命中的 token 也要检查，只查询内存中的过滤器
+        if (tokenRevocationService.isRevoked(principal)) {
+            throw new CustomException("token已注销！");
+        }
+        // 之后的 Controller 通过 JwtPrincipal 参数获取登录用户，不需要再次验证
+        request.setAttribute(JwtPrincipal.REQUEST_ATTRIBUTE, principal);
+        return true;
     }
 }
@@ -0,0 +1,358 @@
+package com.example.key;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.ECDSAKeyProvider;
+import com.auth0.jwt.interfaces.RSAKeyProvider;
+import com.example.config.JwtProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/17
+ * @usage JwtKeyRing 以 kid 为键的 RS256 / ES256 密钥环，密钥来自 jwt.keys.directory 目录中的 PEM 文件
+ * {kid}.public.pem 为验证用的公钥，{kid}.private.pem 为签名用的私钥；只做验证的节点只需放公钥，不需要 jwt.secret。
+ * 目录由 WatchService 监听，文件变化后在后台线程重新加载，只解析修改时间或大小变化了的文件，
+ * 加载完成后整体替换 kid -> 公钥 的 HashMap，验证线程读取时不加锁，也不会看到加载到一半的结果。
+ * 签名使用每种算法中修改时间最新的私钥。轮换步骤：先把新公钥发到所有验证节点，再把新私钥放到签发节点，
+ * 等旧 token 全部过期（jwt.expire-minutes）后再删除旧公钥。
+ * 写入文件时建议先写临时文件再 mv，写到一半的文件解析失败时会继续使用该文件上一次的解析结果
+ */
+@Component
+public class JwtKeyRing implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRing.class);
+
+    public static final String PUBLIC_KEY_SUFFIX = ".public.pem";
+
+    public static final String PRIVATE_KEY_SUFFIX = ".private.pem";
+
+    private final Path directory;
+
+    private final WatchService watchService;
+
+    private final Thread watcher;
+
+    /**
+     * 文件 -> 上一次的解析结果，只在 reload 中访问
+     */
+    private final Map<Path, ParsedKey> parsedKeys = new HashMap<>();
+
+    /**
+     * 公钥被删除或被替换时的回调，参数为这些 kid
+     */
+    private final List<Consumer<Set<String>>> changeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * kid -> 公钥，每次加载后整体替换
+     */
+    private volatile Map<String, PublicKey> publicKeys = Collections.emptyMap();
+
+    /**
+     * 签名算法名（RS256、ES256） -> 该类型中最新的私钥，每次加载后整体替换
+     */
+    private volatile Map<String, SigningKey> signingKeys = Collections.emptyMap();
+
+    public JwtKeyRing(JwtProperties jwtProperties) throws IOException {
+        String keyDirectory = jwtProperties.getKeys().getDirectory();
+        if (!StringUtils.hasText(keyDirectory)) {
+            // 未配置密钥目录，只使用 HS256
+            this.directory = null;
+            this.watchService = null;
+            this.watcher = null;
+            return;
+        }
+        this.directory = Paths.get(keyDirectory).toAbsolutePath();
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalStateException("密钥目录不存在：" + directory);
+        }
+        // 先注册监听再加载，两者之间的变化不会丢失
+        this.watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        reload();
+        this.watcher = new Thread(this::watch, "jwt-key-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * @return 是否配置了密钥目录
+     */
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * @param kid token 头部的 kid
+     * @return 对应的公钥，没有时返回 null
+     */
+    public PublicKey publicKey(String kid) {
+        return kid == null ? null : publicKeys.get(kid);
+    }
+
+    public Set<String> keyIds() {
+        return Collections.unmodifiableSet(publicKeys.keySet());
+    }
+
+    /**
+     * @param algorithm RS256 或 ES256
+     * @return 该算法当前使用的签名私钥，本节点没有对应私钥时返回 null
+     */
+    public SigningKey signingKey(String algorithm) {
+        return signingKeys.get(algorithm);
+    }
+
+    /**
+     * @return 按 kid 查找 RSA 公钥的 RS256 验证用 KeyProvider
+     */
+    public RSAKeyProvider rsaKeyProvider() {
+        return new RSAKeyProvider() {
+            @Override
+            public RSAPublicKey getPublicKeyById(String keyId) {
+                PublicKey publicKey = publicKey(keyId);
+                return publicKey instanceof RSAPublicKey ? (RSAPublicKey) publicKey : null;
+            }
+
+            @Override
+            public RSAPrivateKey getPrivateKey() {
+                return null;
+            }
+
+            @Override
+            public String getPrivateKeyId() {
+                return null;
+            }
+        };
+    }
+
+    /**
+     * @return 按 kid 查找 EC 公钥的 ES256 验证用 KeyProvider
+     */
+    public ECDSAKeyProvider ecdsaKeyProvider() {
+        return new ECDSAKeyProvider() {
+            @Override
+            public ECPublicKey getPublicKeyById(String keyId) {
+                PublicKey publicKey = publicKey(keyId);
+                return publicKey instanceof ECPublicKey ? (ECPublicKey) publicKey : null;
+            }
+
+            @Override
+            public ECPrivateKey getPrivateKey() {
+                return null;
+            }
+
+            @Override
+            public String getPrivateKeyId() {
+                return null;
+            }
+        };
+    }
+
+    /**
+     * 公钥被删除，或同一 kid 换成了不同的公钥后调用，用于让已缓存的验证结果失效
+     * @param listener 参数为被删除或被替换的 kid
+     */
+    public void addChangeListener(Consumer<Set<String>> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * 重新扫描密钥目录，未变化的文件复用上一次的解析结果
+     */
+    synchronized void reload() throws IOException {
+        Map<Path, ParsedKey> current = new HashMap<>();
+        Map<String, PublicKey> newPublicKeys = new HashMap<>();
+        Map<String, SigningKey> newSigningKeys = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.pem")) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                boolean isPrivate = fileName.endsWith(PRIVATE_KEY_SUFFIX);
+                if (!isPrivate && !fileName.endsWith(PUBLIC_KEY_SUFFIX)) {
+                    continue;
+                }
+                ParsedKey parsed = parse(file, isPrivate);
+                if (parsed == null) {
+                    continue;
+                }
+                current.put(file, parsed);
+                String kid = fileName.substring(0, fileName.length()
+                        - (isPrivate ? PRIVATE_KEY_SUFFIX : PUBLIC_KEY_SUFFIX).length());
+                if (isPrivate) {
+                    SigningKey signingKey = SigningKey.of(kid, (PrivateKey) parsed.key, parsed.lastModified);
+                    if (signingKey != null) {
+                        newSigningKeys.merge(signingKey.algorithm.getName(), signingKey, SigningKey::newer);
+                    }
+                } else {
+                    newPublicKeys.put(kid, (PublicKey) parsed.key);
+                }
+            }
+        }
+        parsedKeys.keySet().retainAll(current.keySet());
+        parsedKeys.putAll(current);
+
+        // 比较公钥的编码，同一 kid 的文件被覆盖为另一把公钥时也要让旧结果失效
+        Set<String> changed = new HashSet<>();
+        publicKeys.forEach((kid, previous) -> {
+            PublicKey replacement = newPublicKeys.get(kid);
+            if (replacement == null || !Arrays.equals(previous.getEncoded(), replacement.getEncoded())) {
+                changed.add(kid);
+            }
+        });
+        publicKeys = newPublicKeys;
+        signingKeys = newSigningKeys;
+        logger.info("已加载密钥目录 {}：公钥 {}，签名私钥 {}", directory, newPublicKeys.keySet(), newSigningKeys.values());
+
+        if (!changed.isEmpty()) {
+            for (Consumer<Set<String>> listener : changeListeners) {
+                listener.accept(changed);
+            }
+        }
+    }
+
+    private ParsedKey parse(Path file, boolean isPrivate) {
+        ParsedKey previous = parsedKeys.get(file);
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            if (previous != null && previous.lastModified == lastModified && previous.size == attributes.size()) {
+                return previous;
+            }
+            String pem = new String(Files.readAllBytes(file), StandardCharsets.US_ASCII);
+            Key key = isPrivate ? PemKeys.parsePrivateKey(pem) : PemKeys.parsePublicKey(pem);
+            return new ParsedKey(key, lastModified, attributes.size());
+        } catch (IOException | GeneralSecurityException e) {
+            // 文件可能还在写入，继续使用上一次的结果，写完后的下一个事件会再次加载
+            logger.warn("解析密钥文件 {} 失败：{}", file, e.toString());
+            return previous;
+        }
+    }
+
+    private void watch() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            // 不关心具体事件，整个目录重新扫描
+            key.pollEvents();
+            if (!key.reset()) {
+                // 目录被删除，保留已加载的密钥
+                logger.error("密钥目录 {} 已不可访问，停止监听", directory);
+                return;
+            }
+            try {
+                reload();
+            } catch (IOException | RuntimeException e) {
+                logger.error("重新加载密钥目录 {} 失败", directory, e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+            watcher.interrupt();
+        }
+    }
+
+    /**
+     * 签名私钥及对应的 java-jwt 签名算法
+     */
+    public static final class SigningKey {
+
+        private final String keyId;
+
+        private final Algorithm algorithm;
+
+        private final long lastModified;
+
+        private SigningKey(String keyId, Algorithm algorithm, long lastModified) {
+            this.keyId = keyId;
+            this.algorithm = algorithm;
+            this.lastModified = lastModified;
+        }
+
+        static SigningKey of(String keyId, PrivateKey privateKey, long lastModified) {
+            if (privateKey instanceof RSAPrivateKey) {
+                return new SigningKey(keyId, Algorithm.RSA256(null, (RSAPrivateKey) privateKey), lastModified);
+            }
+            if (privateKey instanceof ECPrivateKey) {
+                // ES256 要求 P-256 曲线
+                return new SigningKey(keyId, Algorithm.ECDSA256(null, (ECPrivateKey) privateKey), lastModified);
+            }
+            logger.warn("不支持的私钥类型：{} {}", keyId, privateKey.getAlgorithm());
+            return null;
+        }
+
+        static SigningKey newer(SigningKey a, SigningKey b) {
+            if (a.lastModified != b.lastModified) {
+                return a.lastModified > b.lastModified ? a : b;
+            }
+            return a.keyId.compareTo(b.keyId) > 0 ? a : b;
+        }
+
+        public String getKeyId() {
+            return keyId;
+        }
+
+        public Algorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        @Override
+        public String toString() {
+            return algorithm.getName() + ":" + keyId;
+        }
+    }
+
+    private static final class ParsedKey {
+
+        private final Key key;
+
+        private final long lastModified;
+
+        private final long size;
+
+        ParsedKey(Key key, long lastModified, long size) {
+            this.key = key;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.principal;
+
+import com.auth0.jwt.exceptions.InvalidClaimException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import java.util.Date;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/17
+ * @usage JwtPrincipal 当前请求的登录用户，由 JwtInterceptor 验证 token 后放入请求属性
+ * claim 只在 token 第一次验证时提取一次，之后随已验证 token 一起缓存；不可变，可以在线程间共享
+ */
+public final class JwtPrincipal {
+
+    /**
+     * 请求属性名
+     */
+    public static final String REQUEST_ATTRIBUTE = JwtPrincipal.class.getName();
+
+    private final int id;
+
+    private final String userName;
+
+    private final long expiresAt;
+
+    /**
+     * jti，用于吊销
+     */
+    private final String tokenId;
+
+    public JwtPrincipal(int id, String userName, long expiresAt, String tokenId) {
+        this.id = id;
+        this.userName = userName;
+        this.expiresAt = expiresAt;
+        this.tokenId = tokenId;
+    }
+
+    /**
+     * @param decodedJWT 已通过验证的 token
+     * @return 登录用户
+     * @throws InvalidClaimException 缺少 id
+     */
+    public static JwtPrincipal from(DecodedJWT decodedJWT) {
+        Integer id = decodedJWT.getClaim("id").asInt();
+        if (id == null) {
+            throw new InvalidClaimException("token 中缺少 id");
+        }
+        Date expiresAt = decodedJWT.getExpiresAt();
+        return new JwtPrincipal(id, decodedJWT.getClaim("userName").asString(),
+                expiresAt == null ? Long.MAX_VALUE : expiresAt.getTime(), decodedJWT.getId());
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    /**
+     * @return token 过期时间，毫秒
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * @return jti，本功能上线前签发的 token 没有 jti，返回 null
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    @Override
+    public String toString() {
+        return "JwtPrincipal{" +
+                "id=" + id +
+                ", userName='" + userName + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.principal;
+
+import com.example.constants.ResultConstants;
+import com.example.exception.CustomException;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/17
+ * @usage JwtPrincipalArgumentResolver 把 JwtInterceptor 放入请求属性的 JwtPrincipal 注入到 Controller 方法参数
+ */
+public class JwtPrincipalArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.getParameterType() == JwtPrincipal.class;
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Object principal = webRequest.getAttribute(JwtPrincipal.REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (principal == null) {
+            // 接口没有被 JwtInterceptor 拦截
+            throw new CustomException(ResultConstants.Constants.CODE_FAIL_NOT_LOGIN,
+                    ResultConstants.Constants.MSG_FAIL_NOT_LOGIN);
+        }
+        return principal;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.revocation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/17
+ * @usage FileRevocationStore 以本地文件持久化的吊销记录，每行为 "jti 过期时间毫秒"
+ * 吊销时追加一行并立即刷盘，启动时以及清理时确有记录过期才整体重写文件（先写临时文件再替换）；查询使用内存中的索引
+ */
+public class FileRevocationStore extends InMemoryRevocationStore {
+
+    private final Path file;
+
+    private BufferedWriter writer;
+
+    public FileRevocationStore(Path file) throws IOException {
+        this.file = file.toAbsolutePath();
+        if (Files.exists(this.file)) {
+            long now = System.currentTimeMillis();
+            for (String line : Files.readAllLines(this.file, StandardCharsets.UTF_8)) {
+                int separator = line.lastIndexOf(' ');
+                if (separator <= 0) {
+                    continue;
+                }
+                try {
+                    long expiresAt = Long.parseLong(line.substring(separator + 1));
+                    if (expiresAt > now) {
+                        super.revoke(line.substring(0, separator), expiresAt);
+                    }
+                } catch (NumberFormatException e) {
+                    // 最后一行可能没有写完整
+                }
+            }
+        } else if (this.file.getParent() != null) {
+            Files.createDirectories(this.file.getParent());
+        }
+        rewrite();
+    }
+
+    @Override
+    public synchronized void revoke(String tokenId, long expiresAt) {
+        try {
+            writer.write(tokenId + ' ' + expiresAt);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入吊销记录失败：" + file, e);
+        }
+        super.revoke(tokenId, expiresAt);
+    }
+
+    @Override
+    public synchronized int purgeExpired(long now) {
+        int removed = super.purgeExpired(now);
+        if (removed == 0) {
+            return 0;
+        }
+        try {
+            rewrite();
+        } catch (IOException e) {
+            throw new UncheckedIOException("重写吊销记录失败：" + file, e);
+        }
+        return removed;
+    }
+
+    /**
+     * 只保留内存中的记录重写文件，之后在新文件上追加
+     */
+    private synchronized void rewrite() throws IOException {
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Long> revocation : revocations.entrySet()) {
+                out.write(revocation.getKey() + ' ' + revocation.getValue());
+                out.newLine();
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        close();
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.revocation;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/17
+ * @usage InMemoryRevocationStore 保存在本进程内存中的吊销记录，重启后丢失，未配置 jwt.revocation.file 时使用
+ */
+public class InMemoryRevocationStore implements RevocationStore {
+
+    /**
+     * jti -> token 过期时间
+     */
+    protected final ConcurrentMap<String, Long> revocations = new ConcurrentHashMap<>();
+
+    @Override
+    public void revoke(String tokenId, long expiresAt) {
+        revocations.merge(tokenId, expiresAt, Math::max);
+    }
+
+    @Override
+    public boolean isRevoked(String tokenId) {
+        return revocations.containsKey(tokenId);
+    }
+
+    @Override
+    public Map<String, Long> activeRevocations(long now) {
+        Map<String, Long> active = new HashMap<>();
+        revocations.forEach((tokenId, expiresAt) -> {
+            if (expiresAt > now) {
+                active.put(tokenId, expiresAt);
+            }
+        });
+        return active;
+    }
+
+    @Override
+    public int purgeExpired(long now) {
+        int removed = 0;
+        for (Iterator<Long> iterator = revocations.values().iterator(); iterator.hasNext(); ) {
+            if (iterator.next() <= now) {
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.revocation;
+
+import com.example.config.JwtProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/17
+ * @usage RevocationConfig 配置了 jwt.revocation.file 时使用 FileRevocationStore，否则使用 InMemoryRevocationStore
+ */
+@Configuration
+public class RevocationConfig {
+
+    @Bean
+    public RevocationStore revocationStore(JwtProperties jwtProperties) throws IOException {
+        String file = jwtProperties.getRevocation().getFile();
+        if (StringUtils.hasText(file)) {
+            return new FileRevocationStore(Paths.get(file));
+        }
+        return new InMemoryRevocationStore();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.revocation;
+
+import java.util.Map;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/17
+ * @usage RevocationStore 已吊销 jti 的权威存储，只在 TimeBucketedBloomFilter 命中时查询
+ * 生产环境可以换成数据库或 Redis，这里提供内存和本地文件两种实现
+ */
+public interface RevocationStore {
+    /**
+     * 记录吊销
+     * @param tokenId jti
+     * @param expiresAt token 过期时间，毫秒；过期后记录可以删除
+     */
+    void revoke(String tokenId, long expiresAt);
+
+    /**
+     * @param tokenId jti
+     * @return 是否已吊销
+     */
+    boolean isRevoked(String tokenId);
+
+    /**
+     * 启动时用于重建过滤器
+     * @param now 当前时间，毫秒
+     * @return jti -> 过期时间，只包含未过期的记录
+     */
+    Map<String, Long> activeRevocations(long now);
+
+    /**
+     * 删除 token 已过期的记录
+     * @param now 当前时间，毫秒
+     * @return 删除的记录数
+     */
+    int purgeExpired(long now);
+}
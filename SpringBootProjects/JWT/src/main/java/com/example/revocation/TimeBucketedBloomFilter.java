@@ -0,0 +1,129 @@
+package com.example.revocation;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/17
+ * @usage TimeBucketedBloomFilter 按 token 过期时间分桶的 Bloom 过滤器
+ * 已吊销的 jti 放入其 exp 所在时间段的桶，检查时也只查 token 自己 exp 所在的桶，一次检查只访问 k 个 bit；
+ * 桶的时间段结束后，桶内所有 token 都已过期，整个桶直接丢弃，过滤器的大小只与有效期内的吊销数量有关。
+ * 每个桶按 expectedPerBucket 和 falsePositiveRate 确定大小，实际数量超出时误判率上升但不会漏判。
+ * 位数组使用 AtomicLongArray，写入与检查可以并发进行
+ */
+public class TimeBucketedBloomFilter {
+
+    private final long bucketMillis;
+
+    /**
+     * 每个桶的位数，64 的整数倍
+     */
+    private final int bitsPerBucket;
+
+    private final int hashCount;
+
+    /**
+     * 桶序号（exp / bucketMillis） -> 桶，第一次写入时创建
+     */
+    private final ConcurrentMap<Long, AtomicLongArray> buckets = new ConcurrentHashMap<>();
+
+    public TimeBucketedBloomFilter(long bucketMillis, int expectedPerBucket, double falsePositiveRate) {
+        if (bucketMillis <= 0 || expectedPerBucket <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("bucketMillis、expectedPerBucket 须大于 0，falsePositiveRate 须在 (0, 1) 之间");
+        }
+        this.bucketMillis = bucketMillis;
+        // m = -n·ln(p) / (ln2)²，k = m / n · ln2
+        double bits = -expectedPerBucket * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.bitsPerBucket = (int) Math.min(Integer.MAX_VALUE - 63, (long) Math.ceil(bits / 64) * 64);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitsPerBucket / expectedPerBucket * Math.log(2)));
+    }
+
+    /**
+     * @param id jti
+     * @param expiresAt token 过期时间，毫秒
+     */
+    public void put(String id, long expiresAt) {
+        AtomicLongArray bits = buckets.computeIfAbsent(bucketOf(expiresAt), bucket -> new AtomicLongArray(bitsPerBucket / 64));
+        long hash = hash(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int index = index(h1 + i * h2);
+            long mask = 1L << index;
+            int word = index >>> 6;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * @param id jti
+     * @param expiresAt token 过期时间，毫秒
+     * @return false 表示一定没有被吊销，true 表示可能被吊销，需要到 RevocationStore 确认
+     */
+    public boolean mightContain(String id, long expiresAt) {
+        AtomicLongArray bits = buckets.get(bucketOf(expiresAt));
+        if (bits == null) {
+            return false;
+        }
+        long hash = hash(id);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int index = index(h1 + i * h2);
+            if ((bits.get(index >>> 6) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 丢弃时间段已经结束的桶
+     * @param now 当前时间，毫秒
+     */
+    public void expire(long now) {
+        long current = bucketOf(now);
+        buckets.keySet().removeIf(bucket -> bucket < current);
+    }
+
+    public int bucketCount() {
+        return buckets.size();
+    }
+
+    /**
+     * @return 位数组占用的字节数
+     */
+    public long sizeInBytes() {
+        return (long) buckets.size() * bitsPerBucket / 8;
+    }
+
+    private long bucketOf(long expiresAt) {
+        return expiresAt / bucketMillis;
+    }
+
+    /**
+     * 把 32 位哈希映射到 [0, bitsPerBucket)，用乘法和移位代替取模
+     */
+    private int index(int combinedHash) {
+        return (int) (((combinedHash & 0xffffffffL) * bitsPerBucket) >>> 32);
+    }
+
+    /**
+     * 以 String.hashCode 为输入，再用 murmur3 的 fmix64 扩展为 64 位，高低 32 位分别作为双重哈希的 h1、h2。
+     * 缓存的 JwtPrincipal 每次请求是同一个 jti 实例，hashCode 只计算一次；hashCode 相同的不同 jti 只会增加误判，不会漏判
+     */
+    static long hash(String id) {
+        long hash = id.hashCode() * 0x9e3779b97f4a7c15L;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.service;
+
+import com.example.principal.JwtPrincipal;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/17
+ */
+public interface TokenRevocationService {
+    /**
+     * 在 token 过期前吊销，之后再使用该 token 的请求被拒绝
+     * @param token 有效的 token
+     */
+    void revoke(String token);
+
+    /**
+     * 每个请求都会调用，没有被吊销的 token 不访问 RevocationStore
+     * @param principal 已通过验证的登录用户
+     * @return 是否已吊销
+     */
+    boolean isRevoked(JwtPrincipal principal);
+}
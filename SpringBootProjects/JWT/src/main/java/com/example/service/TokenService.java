@@ -0,0 +1,24 @@
+package com.example.service;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.entity.User;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/17
+ */
+public interface TokenService {
+    /**
+     * 获取token
+     * @param user 用户
+     * @return token
+     */
+    String createToken(User user);
+
+    /**
+     * 验证token，签名不一致、过期等情况抛出 JWTVerificationException
+     * @param token token
+     * @return 解码后的token
+     */
+    DecodedJWT verifyToken(String token);
+}
@@ -0,0 +1,115 @@
+package com.example.service.impl;
+
+import com.example.cache.VerifiedTokenCache;
+import com.example.config.JwtProperties;
+import com.example.constants.ResultConstants;
+import com.example.exception.CustomException;
+import com.example.principal.JwtPrincipal;
+import com.example.revocation.RevocationStore;
+import com.example.revocation.TimeBucketedBloomFilter;
+import com.example.service.TokenRevocationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/17
+ * @usage TokenRevocationServiceImpl 按 jti 吊销 token
+ * 请求路径上只查询内存中的 TimeBucketedBloomFilter，过滤器命中时才到 RevocationStore 确认；
+ * 启动时用 RevocationStore 中未过期的记录重建过滤器；之后后台线程每个桶时间段清理一次已过期的桶和吊销记录。
+ * 现有的存储都只在本进程内有效，多个节点之间共享吊销记录不在本类的范围内。
+ * 指标：过滤器命中后的确认结果见 jwt.revocation.filter.positive{result=revoked|false_positive}，
+ * 过滤器占用的内存见 jwt.revocation.filter.size
+ */
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationServiceImpl.class);
+
+    private final RevocationStore revocationStore;
+
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    private final TimeBucketedBloomFilter filter;
+
+    private final Counter revokedCounter;
+
+    private final Counter falsePositiveCounter;
+
+    private final ScheduledExecutorService purger;
+
+    public TokenRevocationServiceImpl(JwtProperties jwtProperties, RevocationStore revocationStore,
+                                      VerifiedTokenCache verifiedTokenCache, MeterRegistry meterRegistry) {
+        this.revocationStore = revocationStore;
+        this.verifiedTokenCache = verifiedTokenCache;
+        JwtProperties.Revocation revocation = jwtProperties.getRevocation();
+        long bucketMillis = TimeUnit.MINUTES.toMillis(revocation.getBucketMinutes());
+        this.filter = new TimeBucketedBloomFilter(bucketMillis, revocation.getExpectedPerBucket(),
+                revocation.getFalsePositiveRate());
+        revocationStore.activeRevocations(System.currentTimeMillis()).forEach(filter::put);
+
+        this.revokedCounter = Counter.builder("jwt.revocation.filter.positive").tag("result", "revoked")
+                .description("过滤器命中且确认已吊销的次数").register(meterRegistry);
+        this.falsePositiveCounter = Counter.builder("jwt.revocation.filter.positive").tag("result", "false_positive")
+                .description("过滤器误判的次数").register(meterRegistry);
+        Gauge.builder("jwt.revocation.filter.size", filter, TimeBucketedBloomFilter::sizeInBytes)
+                .description("吊销过滤器位数组占用的内存").baseUnit("bytes").register(meterRegistry);
+
+        this.purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwt-revocation-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.scheduleWithFixedDelay(this::purgeExpired, bucketMillis, bucketMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void revoke(String token) {
+        JwtPrincipal principal = verifiedTokenCache.authenticate(token);
+        if (principal.getTokenId() == null) {
+            throw new CustomException(ResultConstants.Constants.CODE_FAIL, "token 中没有 jti，无法注销！");
+        }
+        // 先写权威存储再放入过滤器，过滤器命中时存储中一定已有记录
+        revocationStore.revoke(principal.getTokenId(), principal.getExpiresAt());
+        filter.put(principal.getTokenId(), principal.getExpiresAt());
+        verifiedTokenCache.evict(token);
+    }
+
+    @Override
+    public boolean isRevoked(JwtPrincipal principal) {
+        String tokenId = principal.getTokenId();
+        if (tokenId == null || !filter.mightContain(tokenId, principal.getExpiresAt())) {
+            return false;
+        }
+        boolean revoked = revocationStore.isRevoked(tokenId);
+        (revoked ? revokedCounter : falsePositiveCounter).increment();
+        return revoked;
+    }
+
+    /**
+     * 清理过期的桶和吊销记录
+     */
+    void purgeExpired() {
+        long now = System.currentTimeMillis();
+        try {
+            filter.expire(now);
+            revocationStore.purgeExpired(now);
+        } catch (RuntimeException e) {
+            logger.error("清理过期的吊销记录失败", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        purger.shutdownNow();
+    }
+}
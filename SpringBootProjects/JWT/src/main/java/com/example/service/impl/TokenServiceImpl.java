@@ -0,0 +1,126 @@
+package com.example.service.impl;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTCreator;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.AlgorithmMismatchException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.config.JwtProperties;
+import com.example.entity.User;
+import com.example.key.JwtKeyRing;
+import com.example.service.TokenService;
+import com.example.utils.ThreadLocalHmacAlgorithm;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/17
+ * @usage TokenServiceImpl 签名算法和 JWTVerifier 在启动时创建一次，之后所有请求共用；两者都是线程安全的
+ * 验证时按 token 头部的 alg 选择 JWTVerifier：配置了 jwt.secret 时接受 HS256，配置了 jwt.keys.directory 时接受
+ * RS256 / ES256，公钥按头部的 kid 从 JwtKeyRing 中查找。签发使用 jwt.algorithm 指定的算法
+ */
+@Service
+public class TokenServiceImpl implements TokenService {
+
+    private static final String HS256 = "HS256";
+
+    private static final String RS256 = "RS256";
+
+    private static final String ES256 = "ES256";
+
+    private final String signingAlgorithm;
+
+    /**
+     * 未配置 jwt.secret 时为 null
+     */
+    private final Algorithm hmacAlgorithm;
+
+    /**
+     * 未使用 RS256 / ES256 时为 null
+     */
+    private final JwtKeyRing keyRing;
+
+    /**
+     * 算法名 -> 该算法的 JWTVerifier
+     */
+    private final Map<String, JWTVerifier> verifiers = new HashMap<>();
+
+    private final long expireMillis;
+
+    /**
+     * 只使用 HS256
+     */
+    public TokenServiceImpl(JwtProperties jwtProperties) {
+        this(jwtProperties, null);
+    }
+
+    @Autowired
+    public TokenServiceImpl(JwtProperties jwtProperties, JwtKeyRing keyRing) {
+        this.signingAlgorithm = jwtProperties.getAlgorithm();
+        if (!HS256.equals(signingAlgorithm) && !RS256.equals(signingAlgorithm) && !ES256.equals(signingAlgorithm)) {
+            throw new IllegalArgumentException("不支持的签名算法：" + signingAlgorithm);
+        }
+        if (StringUtils.hasText(jwtProperties.getSecret())) {
+            this.hmacAlgorithm = ThreadLocalHmacAlgorithm.hmac256(jwtProperties.getSecret());
+            verifiers.put(HS256, JWT.require(hmacAlgorithm).build());
+        } else {
+            this.hmacAlgorithm = null;
+        }
+        if (keyRing != null && keyRing.isEnabled()) {
+            this.keyRing = keyRing;
+            verifiers.put(RS256, JWT.require(Algorithm.RSA256(keyRing.rsaKeyProvider())).build());
+            verifiers.put(ES256, JWT.require(Algorithm.ECDSA256(keyRing.ecdsaKeyProvider())).build());
+        } else {
+            this.keyRing = null;
+        }
+        if (verifiers.isEmpty()) {
+            throw new IllegalStateException("未配置 jwt.secret 或 jwt.keys.directory，无法验证 token");
+        }
+        this.expireMillis = TimeUnit.MINUTES.toMillis(jwtProperties.getExpireMinutes());
+    }
+
+    @Override
+    public String createToken(User user) {
+        JWTCreator.Builder builder = JWT.create()
+                // payload
+                .withClaim("id", user.getId())
+                .withClaim("userName", user.getUserName())
+                // jti，用于吊销
+                .withJWTId(UUID.randomUUID().toString())
+                // 设置token有效时间
+                .withExpiresAt(new Date(System.currentTimeMillis() + expireMillis));
+
+        // signature
+        if (HS256.equals(signingAlgorithm)) {
+            if (hmacAlgorithm == null) {
+                throw new IllegalStateException("未配置 jwt.secret，本节点只能验证 token");
+            }
+            return builder.sign(hmacAlgorithm);
+        }
+        JwtKeyRing.SigningKey signingKey = keyRing == null ? null : keyRing.signingKey(signingAlgorithm);
+        if (signingKey == null) {
+            throw new IllegalStateException("密钥目录中没有 " + signingAlgorithm + " 私钥，本节点只能验证 token");
+        }
+        // 同时取得 kid 和私钥，轮换过程中两者不会错开
+        return builder.withKeyId(signingKey.getKeyId()).sign(signingKey.getAlgorithm());
+    }
+
+    @Override
+    public DecodedJWT verifyToken(String token) {
+        DecodedJWT decodedJWT = JWT.decode(token);
+        JWTVerifier verifier = verifiers.get(decodedJWT.getAlgorithm());
+        if (verifier == null) {
+            throw new AlgorithmMismatchException("不支持的签名算法：" + decodedJWT.getAlgorithm());
+        }
+        return verifier.verify(decodedJWT);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.utils;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.SignatureGenerationException;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/17
+ * @usage ThreadLocalHmacAlgorithm HMAC 签名算法，每个线程复用同一个已初始化的 Mac
+ * Algorithm.HMAC256 每次签名和验签都会 Mac.getInstance 并重新 init 密钥，这里只在线程第一次使用时做一次
+ */
+public class ThreadLocalHmacAlgorithm extends Algorithm {
+
+    private static final byte JWT_PART_SEPARATOR = (byte) '.';
+
+    private final ThreadLocal<Mac> macs;
+
+    private ThreadLocalHmacAlgorithm(String id, String algorithm, String secret) {
+        super(id, algorithm);
+        if (secret == null) {
+            throw new IllegalArgumentException("签名密钥不能为空");
+        }
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), algorithm);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(algorithm);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(algorithm + " 不可用", e);
+            }
+        });
+        // 启动时暴露密钥或算法的问题，而不是等到第一个请求
+        macs.get();
+    }
+
+    public static ThreadLocalHmacAlgorithm hmac256(String secret) {
+        return new ThreadLocalHmacAlgorithm("HS256", "HmacSHA256", secret);
+    }
+
+    @Override
+    public void verify(DecodedJWT jwt) throws SignatureVerificationException {
+        byte[] signature;
+        try {
+            signature = Base64.getUrlDecoder().decode(jwt.getSignature());
+        } catch (IllegalArgumentException e) {
+            throw new SignatureVerificationException(this, e);
+        }
+        byte[] expected = sign(jwt.getHeader().getBytes(StandardCharsets.UTF_8),
+                jwt.getPayload().getBytes(StandardCharsets.UTF_8));
+        if (!MessageDigest.isEqual(expected, signature)) {
+            throw new SignatureVerificationException(this);
+        }
+    }
+
+    @Override
+    public byte[] sign(byte[] headerBytes, byte[] payloadBytes) throws SignatureGenerationException {
+        Mac mac = macs.get();
+        mac.update(headerBytes);
+        mac.update(JWT_PART_SEPARATOR);
+        mac.update(payloadBytes);
+        return mac.doFinal();
+    }
+
+    @Override
+    public byte[] sign(byte[] contentBytes) throws SignatureGenerationException {
+        return macs.get().doFinal(contentBytes);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.benchmark;
+
+import com.auth0.jwt.interfaces.Claim;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.cache.VerifiedTokenCache;
+import com.example.config.JwtProperties;
+import com.example.entity.User;
+import com.example.principal.JwtPrincipal;
+import com.example.service.TokenService;
+import com.example.service.impl.TokenServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/17
+ * @usage JwtPrincipalBenchmark 一次 /user/test 请求中与 token 相关的开销
+ * verifyTwice 为原流程：拦截器验证一次，Controller 读取请求头后再验证一次并逐个解析 claim；
+ * propagatePrincipal 为拦截器验证后传递 JwtPrincipal，Controller 直接读取字段。两者的拦截器都使用 VerifiedTokenCache
+ * 运行方式：先执行 mvn test-compile，再运行本类的 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtPrincipalBenchmark {
+
+    private TokenService tokenService;
+
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecret("token!Q@W3e4r");
+        tokenService = new TokenServiceImpl(jwtProperties);
+        verifiedTokenCache = new VerifiedTokenCache(tokenService, jwtProperties, new SimpleMeterRegistry());
+
+        User user = new User();
+        user.setId(1);
+        user.setUserName("chenzufeng");
+        token = tokenService.createToken(user);
+    }
+
+    @Benchmark
+    public void verifyTwice(Blackhole blackhole) {
+        // JwtInterceptor
+        blackhole.consume(verifiedTokenCache.verify(token));
+        // UserController
+        DecodedJWT decodedJWT = tokenService.verifyToken(token);
+        Map<String, Claim> claims = decodedJWT.getClaims();
+        blackhole.consume(decodedJWT.getClaim("id").asInt());
+        blackhole.consume(claims.get("userName").asString());
+    }
+
+    @Benchmark
+    public void propagatePrincipal(Blackhole blackhole) {
+        // JwtInterceptor
+        JwtPrincipal principal = verifiedTokenCache.authenticate(token);
+        // UserController
+        blackhole.consume(principal.getId());
+        blackhole.consume(principal.getUserName());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtPrincipalBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
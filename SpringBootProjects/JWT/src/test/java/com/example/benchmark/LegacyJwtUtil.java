@@ -1,4 +1,4 @@
-package com.example.utils;
+package com.example.benchmark;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTCreator;
@@ -11,41 +11,29 @@ import java.util.Calendar;
 /**
  * @author chenzufeng
  * @date 2021/11/17
+ * @usage LegacyJwtUtil 原 JwtUtil 的实现，每次调用都重新创建 Algorithm 和 JWTVerifier，仅作为基准测试的对照
  */
-public class JwtUtil {
-    /**
-     * signature
-     */
-    private static String SIGNATURE = "token!Q@W3e4r";
-
-    /**
-     * 获取token
-     * @param user 用户
-     * @return token
-     */
-    public static String getToken(User user) {
-        JWTCreator.Builder builder = JWT.create();
+final class LegacyJwtUtil {
+
+    private static final String SIGNATURE = "token!Q@W3e4r";
 
-        // payload
+    private LegacyJwtUtil() {
+    }
+
+    static String getToken(User user) {
+        JWTCreator.Builder builder = JWT.create();
         builder.withClaim("id", user.getId());
         builder.withClaim("userName", user.getUserName());
         builder.withClaim("password", user.getPassword());
 
-        // 设置token有效时间
         Calendar instance = Calendar.getInstance();
         instance.add(Calendar.MINUTE, 10);
         builder.withExpiresAt(instance.getTime());
 
-        // signature
-        return builder.sign(Algorithm.HMAC256(SIGNATURE)).toString();
+        return builder.sign(Algorithm.HMAC256(SIGNATURE));
     }
 
-    /**
-     * 验证token
-     * @param token token
-     * @return 是否有效
-     */
-    public static DecodedJWT verifyToken(String token) {
+    static DecodedJWT verifyToken(String token) {
         return JWT.require(Algorithm.HMAC256(SIGNATURE)).build().verify(token);
     }
 }
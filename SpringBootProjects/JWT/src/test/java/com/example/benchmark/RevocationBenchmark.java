@@ -0,0 +1,114 @@
+package com.example.benchmark;
+
+import com.example.cache.VerifiedTokenCache;
+import com.example.config.JwtProperties;
+import com.example.principal.JwtPrincipal;
+import com.example.revocation.InMemoryRevocationStore;
+import com.example.revocation.RevocationStore;
+import com.example.service.impl.TokenRevocationServiceImpl;
+import com.example.service.impl.TokenServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/17
+ * @usage RevocationBenchmark 已有 revoked 个未过期的吊销记录时，JwtInterceptor 每个请求的吊销检查耗时
+ * notRevoked 为绝大多数请求的情况，只查询过滤器；revoked 为过滤器命中后再查询 RevocationStore；
+ * storeLookup 为每个请求都查询 RevocationStore 的做法，这里的存储在本进程内存中，换成数据库或 Redis 后还要加上一次网络往返。
+ * setup 结束时输出过滤器与吊销记录各自占用的内存
+ * 运行方式：先执行 mvn test-compile，再运行本类的 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class RevocationBenchmark {
+
+    @Param({"1000000"})
+    private int revoked;
+
+    private RevocationStore revocationStore;
+
+    private TokenRevocationServiceImpl tokenRevocationService;
+
+    private JwtPrincipal cleanPrincipal;
+
+    private JwtPrincipal revokedPrincipal;
+
+    @Setup
+    public void setup() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecret("token!Q@W3e4r");
+        // 10 分钟有效期、1 分钟一个桶，吊销记录平均分布在 10 个桶中
+        jwtProperties.getRevocation().setExpectedPerBucket(revoked / jwtProperties.getExpireMinutes());
+        long now = System.currentTimeMillis();
+        long expireMillis = TimeUnit.MINUTES.toMillis(jwtProperties.getExpireMinutes());
+
+        long before = usedMemory();
+        revocationStore = new InMemoryRevocationStore();
+        String lastRevoked = null;
+        long expiresAt = 0;
+        for (int i = 0; i < revoked; i++) {
+            lastRevoked = UUID.randomUUID().toString();
+            expiresAt = now + 1 + expireMillis * i / revoked;
+            revocationStore.revoke(lastRevoked, expiresAt);
+        }
+        long storeBytes = usedMemory() - before;
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TokenServiceImpl tokenService = new TokenServiceImpl(jwtProperties);
+        tokenRevocationService = new TokenRevocationServiceImpl(jwtProperties, revocationStore,
+                new VerifiedTokenCache(tokenService, jwtProperties, meterRegistry), meterRegistry);
+        double filterBytes = meterRegistry.get("jwt.revocation.filter.size").gauge().value();
+        System.out.printf("%n%d 个吊销记录：过滤器 %.2f MB，吊销记录 %.2f MB%n",
+                revoked, filterBytes / (1 << 20), (double) storeBytes / (1 << 20));
+
+        cleanPrincipal = new JwtPrincipal(1, "chenzufeng", expiresAt, UUID.randomUUID().toString());
+        revokedPrincipal = new JwtPrincipal(1, "chenzufeng", expiresAt, lastRevoked);
+    }
+
+    @TearDown
+    public void tearDown() {
+        tokenRevocationService.destroy();
+    }
+
+    private static long usedMemory() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        return tokenRevocationService.isRevoked(cleanPrincipal);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        return tokenRevocationService.isRevoked(revokedPrincipal);
+    }
+
+    @Benchmark
+    public boolean storeLookup() {
+        return revocationStore.isRevoked(cleanPrincipal.getTokenId());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RevocationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
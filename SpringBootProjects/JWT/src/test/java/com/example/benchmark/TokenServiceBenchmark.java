@@ -0,0 +1,88 @@
+package com.example.benchmark;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.cache.VerifiedTokenCache;
+import com.example.config.JwtProperties;
+import com.example.entity.User;
+import com.example.service.TokenService;
+import com.example.service.impl.TokenServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/17
+ * @usage TokenServiceBenchmark 对比原 JwtUtil（每次新建 Algorithm、JWTVerifier）与 TokenServiceImpl 的签发和验证吞吐量，
+ * cachedVerify 为 VerifiedTokenCache 命中时的验证吞吐量
+ * 运行方式：先执行 mvn test-compile，再运行本类的 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private TokenService tokenService;
+
+    private VerifiedTokenCache verifiedTokenCache;
+
+    private User user;
+
+    private String token;
+
+    @Setup
+    public void setup() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecret("token!Q@W3e4r");
+        tokenService = new TokenServiceImpl(jwtProperties);
+        verifiedTokenCache = new VerifiedTokenCache(tokenService, jwtProperties, new SimpleMeterRegistry());
+
+        user = new User();
+        user.setId(1);
+        user.setUserName("chenzufeng");
+        user.setPassword("123456");
+        token = tokenService.createToken(user);
+    }
+
+    @Benchmark
+    public String legacySign() {
+        return LegacyJwtUtil.getToken(user);
+    }
+
+    @Benchmark
+    public DecodedJWT legacyVerify() {
+        return LegacyJwtUtil.verifyToken(token);
+    }
+
+    @Benchmark
+    public String sign() {
+        return tokenService.createToken(user);
+    }
+
+    @Benchmark
+    public DecodedJWT verify() {
+        return tokenService.verifyToken(token);
+    }
+
+    @Benchmark
+    public DecodedJWT cachedVerify() {
+        return verifiedTokenCache.verify(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TokenServiceBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
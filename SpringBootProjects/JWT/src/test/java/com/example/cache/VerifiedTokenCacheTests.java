@@ -0,0 +1,145 @@
+package com.example.cache;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.config.JwtProperties;
+import com.example.entity.User;
+import com.example.key.JwtKeyRing;
+import com.example.key.TestKeys;
+import com.example.principal.JwtPrincipal;
+import com.example.service.TokenService;
+import com.example.service.impl.TokenServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTests {
+
+    private static final String SECRET = "token!Q@W3e4r";
+
+    private TokenService tokenService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecret(SECRET);
+        tokenService = new TokenServiceImpl(jwtProperties);
+        meterRegistry = new SimpleMeterRegistry();
+        verifiedTokenCache = new VerifiedTokenCache(tokenService, jwtProperties, meterRegistry);
+    }
+
+    private String token(int id) {
+        User user = new User();
+        user.setId(id);
+        user.setUserName("chenzufeng");
+        return tokenService.createToken(user);
+    }
+
+    @Test
+    void returnsCachedResultForSameToken() {
+        String token = token(1);
+
+        DecodedJWT first = verifiedTokenCache.verify(token);
+        DecodedJWT second = verifiedTokenCache.verify(token);
+
+        assertSame(first, second);
+        assertEquals(1L, meterRegistry.get("jwt.verify").timer().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "jwt.verified").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void authenticateExtractsPrincipalOnce() {
+        String token = token(1);
+
+        JwtPrincipal principal = verifiedTokenCache.authenticate(token);
+
+        assertEquals(1, principal.getId());
+        assertEquals("chenzufeng", principal.getUserName());
+        assertSame(principal, verifiedTokenCache.authenticate(token));
+        assertEquals(1L, meterRegistry.get("jwt.verify").timer().count());
+    }
+
+    @Test
+    void evictForcesFullVerification() {
+        String token = token(1);
+        DecodedJWT first = verifiedTokenCache.verify(token);
+
+        verifiedTokenCache.evict(token);
+
+        assertNotSame(first, verifiedTokenCache.verify(token));
+        assertEquals(2L, meterRegistry.get("jwt.verify").timer().count());
+    }
+
+    @Test
+    void evictIfRemovesMatchingTokens() {
+        String first = token(1);
+        String second = token(2);
+        DecodedJWT firstDecoded = verifiedTokenCache.verify(first);
+        DecodedJWT secondDecoded = verifiedTokenCache.verify(second);
+
+        verifiedTokenCache.evictIf(decodedJWT -> decodedJWT.getClaim("id").asInt() == 1);
+
+        assertNotSame(firstDecoded, verifiedTokenCache.verify(first));
+        assertSame(secondDecoded, verifiedTokenCache.verify(second));
+    }
+
+    @Test
+    void invalidTokenIsNotCached() {
+        String token = JWT.create().withClaim("id", 1)
+                .withExpiresAt(new Date(System.currentTimeMillis() + 60_000))
+                .sign(Algorithm.HMAC256("another"));
+
+        assertThrows(SignatureVerificationException.class, () -> verifiedTokenCache.verify(token));
+        assertThrows(SignatureVerificationException.class, () -> verifiedTokenCache.verify(token));
+    }
+
+    @Test
+    void replacingPublicKeyUnderSameKidEvictsTokens(@TempDir Path directory) throws Exception {
+        KeyPair first = TestKeys.rsa();
+        TestKeys.writePublicKey(directory, "rsa-1", first);
+        TestKeys.writePrivateKey(directory, "rsa-1", first);
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setAlgorithm("RS256");
+        jwtProperties.getKeys().setDirectory(directory.toString());
+        JwtKeyRing keyRing = new JwtKeyRing(jwtProperties);
+        try {
+            TokenServiceImpl rsaTokenService = new TokenServiceImpl(jwtProperties, keyRing);
+            VerifiedTokenCache cache = new VerifiedTokenCache(rsaTokenService, jwtProperties, new SimpleMeterRegistry());
+            cache.watchKeyRing(keyRing);
+            User user = new User();
+            user.setId(1);
+            user.setUserName("chenzufeng");
+            String token = rsaTokenService.createToken(user);
+            cache.verify(token);
+
+            // kid 不变，公钥换成另一把，之前的验证结果不能再用
+            TestKeys.writePublicKey(directory, "rsa-1", TestKeys.rsa());
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (true) {
+                try {
+                    cache.verify(token);
+                } catch (SignatureVerificationException e) {
+                    break;
+                }
+                assertTrue(System.currentTimeMillis() < deadline, "替换公钥后缓存的验证结果没有失效");
+                Thread.sleep(20);
+            }
+        } finally {
+            keyRing.destroy();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.controller;
+
+import com.example.entity.User;
+import com.example.service.TokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Test
+    void testReceivesPrincipalFromInterceptor() throws Exception {
+        User user = new User();
+        user.setId(1);
+        user.setUserName("chenzufeng");
+
+        mockMvc.perform(get("/user/test").header("Authorization", tokenService.createToken(user)))
+                .andExpect(jsonPath("$.message").value("请求成功！"));
+    }
+
+    @Test
+    void testRejectsInvalidToken() throws Exception {
+        mockMvc.perform(get("/user/test").header("Authorization", "invalid"))
+                .andExpect(jsonPath("$.message").value("token无效！"));
+    }
+
+    @Test
+    void logoutRevokesTokenBeforeExpiry() throws Exception {
+        User user = new User();
+        user.setId(1);
+        user.setUserName("chenzufeng");
+        String token = tokenService.createToken(user);
+        String other = tokenService.createToken(user);
+
+        mockMvc.perform(post("/user/logout").header("Authorization", token))
+                .andExpect(jsonPath("$.message").value("注销成功！"));
+
+        mockMvc.perform(get("/user/test").header("Authorization", token))
+                .andExpect(jsonPath("$.message").value("token已注销！"));
+        mockMvc.perform(get("/user/test").header("Authorization", other))
+                .andExpect(jsonPath("$.message").value("请求成功！"));
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.key;
+
+import com.example.config.JwtProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyPair;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtKeyRingTests {
+
+    @TempDir
+    Path directory;
+
+    private JwtKeyRing keyRing;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (keyRing != null) {
+            keyRing.destroy();
+        }
+    }
+
+    private JwtKeyRing open() throws IOException {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.getKeys().setDirectory(directory.toString());
+        keyRing = new JwtKeyRing(jwtProperties);
+        return keyRing;
+    }
+
+    @Test
+    void disabledWithoutDirectory() throws IOException {
+        JwtKeyRing disabled = new JwtKeyRing(new JwtProperties());
+
+        assertFalse(disabled.isEnabled());
+        assertNull(disabled.publicKey("any"));
+        assertNull(disabled.signingKey("RS256"));
+    }
+
+    @Test
+    void indexesPublicKeysByKid() throws Exception {
+        KeyPair rsa = TestKeys.rsa();
+        KeyPair ec = TestKeys.ec();
+        TestKeys.writePublicKey(directory, "rsa-1", rsa);
+        TestKeys.writePublicKey(directory, "ec-1", ec);
+        Files.write(directory.resolve("README.txt"), "ignored".getBytes(StandardCharsets.UTF_8));
+
+        open();
+
+        assertEquals(rsa.getPublic(), keyRing.publicKey("rsa-1"));
+        assertEquals(ec.getPublic(), keyRing.publicKey("ec-1"));
+        assertNull(keyRing.publicKey("missing"));
+        assertEquals(rsa.getPublic(), keyRing.rsaKeyProvider().getPublicKeyById("rsa-1"));
+        // kid 对应的公钥类型与算法不符时当作不存在
+        assertNull(keyRing.rsaKeyProvider().getPublicKeyById("ec-1"));
+        assertEquals(ec.getPublic(), keyRing.ecdsaKeyProvider().getPublicKeyById("ec-1"));
+    }
+
+    @Test
+    void signsWithNewestPrivateKeyOfEachType() throws Exception {
+        TestKeys.writePrivateKey(directory, "rsa-1", TestKeys.rsa());
+        TestKeys.writePrivateKey(directory, "rsa-2", TestKeys.rsa());
+        TestKeys.writePrivateKey(directory, "ec-1", TestKeys.ec());
+        Files.setLastModifiedTime(directory.resolve("rsa-1" + JwtKeyRing.PRIVATE_KEY_SUFFIX),
+                FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+
+        open();
+
+        assertEquals("rsa-1", keyRing.signingKey("RS256").getKeyId());
+        assertEquals("ec-1", keyRing.signingKey("ES256").getKeyId());
+        // 私钥不作为验证公钥
+        assertTrue(keyRing.keyIds().isEmpty());
+    }
+
+    @Test
+    void keepsPreviousKeyWhenFileIsUnreadable() throws Exception {
+        KeyPair rsa = TestKeys.rsa();
+        TestKeys.writePublicKey(directory, "rsa-1", rsa);
+        open();
+
+        Files.write(directory.resolve("rsa-1" + JwtKeyRing.PUBLIC_KEY_SUFFIX),
+                "-----BEGIN PUBLIC KEY-----\nMIIB".getBytes(StandardCharsets.US_ASCII));
+        keyRing.reload();
+
+        assertEquals(rsa.getPublic(), keyRing.publicKey("rsa-1"));
+    }
+
+    @Test
+    void reloadsWhenDirectoryChanges() throws Exception {
+        KeyPair first = TestKeys.rsa();
+        TestKeys.writePublicKey(directory, "rsa-1", first);
+        open();
+        Set<String> removed = ConcurrentHashMap.newKeySet();
+        keyRing.addChangeListener(removed::addAll);
+
+        KeyPair second = TestKeys.ec();
+        TestKeys.writePublicKey(directory, "ec-2", second);
+        awaitTrue(() -> keyRing.publicKey("ec-2") != null);
+        assertEquals(second.getPublic(), keyRing.publicKey("ec-2"));
+
+        Files.delete(directory.resolve("rsa-1" + JwtKeyRing.PUBLIC_KEY_SUFFIX));
+        awaitTrue(() -> keyRing.publicKey("rsa-1") == null);
+        assertEquals(second.getPublic(), keyRing.publicKey("ec-2"));
+        awaitTrue(() -> removed.contains("rsa-1"));
+    }
+
+    @Test
+    void notifiesWhenKeyUnderSameKidIsReplaced() throws Exception {
+        KeyPair first = TestKeys.rsa();
+        TestKeys.writePublicKey(directory, "rsa-1", first);
+        open();
+        Set<String> changed = ConcurrentHashMap.newKeySet();
+        keyRing.addChangeListener(changed::addAll);
+
+        // 文件重写但内容不变，不算替换
+        TestKeys.writePublicKey(directory, "rsa-1", first);
+        keyRing.reload();
+        assertTrue(changed.isEmpty());
+
+        KeyPair second = TestKeys.rsa();
+        TestKeys.writePublicKey(directory, "rsa-1", second);
+        awaitTrue(() -> second.getPublic().equals(keyRing.publicKey("rsa-1")));
+        awaitTrue(() -> changed.contains("rsa-1"));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "等待密钥目录重新加载超时");
+            Thread.sleep(20);
+        }
+    }
+}
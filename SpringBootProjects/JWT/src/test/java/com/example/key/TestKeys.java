@@ -0,0 +1,58 @@
+package com.example.key;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+
+/**
+ * 测试用密钥：生成密钥对并按 JwtKeyRing 的文件命名写成 PEM
+ */
+public final class TestKeys {
+
+    private TestKeys() {
+    }
+
+    public static KeyPair rsa() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    public static KeyPair ec() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+
+    public static void writePublicKey(Path directory, String kid, KeyPair keyPair) throws IOException {
+        write(directory.resolve(kid + JwtKeyRing.PUBLIC_KEY_SUFFIX),
+                pem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+    }
+
+    public static void writePrivateKey(Path directory, String kid, KeyPair keyPair) throws IOException {
+        write(directory.resolve(kid + JwtKeyRing.PRIVATE_KEY_SUFFIX),
+                pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+    }
+
+    /**
+     * 先写临时文件再改名，监听线程不会读到写了一半的文件
+     */
+    private static void write(Path file, String content) throws IOException {
+        Path temp = Files.createTempFile(file.getParent(), "key", ".tmp");
+        Files.write(temp, content.getBytes(StandardCharsets.US_ASCII));
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, new byte[]{'\n'}).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.revocation;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileRevocationStoreTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void keepsUnexpiredRevocationsAcrossRestarts() throws Exception {
+        Path file = directory.resolve("revoked-tokens.txt");
+        long now = System.currentTimeMillis();
+        FileRevocationStore store = new FileRevocationStore(file);
+        store.revoke("active", now + 60_000);
+        store.revoke("expired", now - 1);
+        store.close();
+
+        FileRevocationStore reopened = new FileRevocationStore(file);
+
+        assertTrue(reopened.isRevoked("active"));
+        assertFalse(reopened.isRevoked("expired"));
+        assertEquals(Collections.singletonMap("active", now + 60_000), reopened.activeRevocations(now));
+        reopened.close();
+    }
+
+    @Test
+    void purgeRemovesExpiredRecordsFromFile() throws Exception {
+        Path file = directory.resolve("revoked-tokens.txt");
+        long now = System.currentTimeMillis();
+        FileRevocationStore store = new FileRevocationStore(file);
+        store.revoke("first", now + 1_000);
+        store.revoke("second", now + 60_000);
+
+        store.purgeExpired(now + 1_000);
+        store.revoke("third", now + 60_000);
+        store.close();
+
+        FileRevocationStore reopened = new FileRevocationStore(file);
+        assertFalse(reopened.isRevoked("first"));
+        assertTrue(reopened.isRevoked("second"));
+        assertTrue(reopened.isRevoked("third"));
+        reopened.close();
+    }
+
+    @Test
+    void purgeRewritesFileOnlyWhenRecordsExpired() throws Exception {
+        Path file = directory.resolve("revoked-tokens.txt");
+        long now = System.currentTimeMillis();
+        FileRevocationStore store = new FileRevocationStore(file);
+        store.revoke("first", now + 1_000);
+        // 重写文件时会丢掉无法解析的行，用它判断文件是否被重写
+        Files.write(file, "partial\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        assertEquals(0, store.purgeExpired(now));
+        assertTrue(Files.readAllLines(file, StandardCharsets.UTF_8).contains("partial"));
+
+        assertEquals(1, store.purgeExpired(now + 1_000));
+        assertTrue(Files.readAllLines(file, StandardCharsets.UTF_8).isEmpty());
+        store.close();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.revocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeBucketedBloomFilterTests {
+
+    private static final long BUCKET_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final long EXPIRES_AT = 1_637_136_000_000L;
+
+    @Test
+    void neverMissesRevokedIds() {
+        TimeBucketedBloomFilter filter = new TimeBucketedBloomFilter(BUCKET_MILLIS, 10_000, 0.01);
+        String[] ids = new String[10_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID().toString();
+            filter.put(ids[i], EXPIRES_AT + i);
+        }
+
+        for (int i = 0; i < ids.length; i++) {
+            assertTrue(filter.mightContain(ids[i], EXPIRES_AT + i));
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredRate() {
+        TimeBucketedBloomFilter filter = new TimeBucketedBloomFilter(BUCKET_MILLIS, 10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(UUID.randomUUID().toString(), EXPIRES_AT);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString(), EXPIRES_AT)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "误判次数：" + falsePositives);
+    }
+
+    @Test
+    void onlyChecksBucketOfTokenExpiry() {
+        TimeBucketedBloomFilter filter = new TimeBucketedBloomFilter(BUCKET_MILLIS, 100, 0.01);
+        filter.put("jti", EXPIRES_AT);
+
+        assertTrue(filter.mightContain("jti", EXPIRES_AT));
+        // 同一 jti 不会出现在其他过期时间的 token 中
+        assertFalse(filter.mightContain("jti", EXPIRES_AT + BUCKET_MILLIS));
+    }
+
+    @Test
+    void dropsBucketsOnceAllTheirTokensExpired() {
+        TimeBucketedBloomFilter filter = new TimeBucketedBloomFilter(BUCKET_MILLIS, 100, 0.01);
+        filter.put("first", EXPIRES_AT);
+        filter.put("second", EXPIRES_AT + BUCKET_MILLIS);
+        assertEquals(2, filter.bucketCount());
+
+        filter.expire(EXPIRES_AT);
+        assertEquals(2, filter.bucketCount());
+
+        filter.expire(EXPIRES_AT + BUCKET_MILLIS);
+        assertEquals(1, filter.bucketCount());
+        assertFalse(filter.mightContain("first", EXPIRES_AT));
+        assertTrue(filter.mightContain("second", EXPIRES_AT + BUCKET_MILLIS));
+    }
+}
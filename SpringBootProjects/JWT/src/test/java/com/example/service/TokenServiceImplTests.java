@@ -0,0 +1,166 @@
+package com.example.service;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.AlgorithmMismatchException;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.example.config.JwtProperties;
+import com.example.entity.User;
+import com.example.key.JwtKeyRing;
+import com.example.key.TestKeys;
+import com.example.service.impl.TokenServiceImpl;
+import com.example.utils.ThreadLocalHmacAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.interfaces.RSAPrivateKey;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceImplTests {
+
+    private static final String SECRET = "token!Q@W3e4r";
+
+    private TokenService tokenService;
+
+    private User user;
+
+    private final List<JwtKeyRing> keyRings = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecret(SECRET);
+        tokenService = new TokenServiceImpl(jwtProperties);
+
+        user = new User();
+        user.setId(1);
+        user.setUserName("chenzufeng");
+        user.setPassword("123456");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (JwtKeyRing keyRing : keyRings) {
+            keyRing.destroy();
+        }
+    }
+
+    @Test
+    void verifiesOwnToken() {
+        DecodedJWT decodedJWT = tokenService.verifyToken(tokenService.createToken(user));
+
+        assertEquals(1, decodedJWT.getClaim("id").asInt());
+        assertEquals("chenzufeng", decodedJWT.getClaim("userName").asString());
+        assertTrue(decodedJWT.getExpiresAt().after(new Date()));
+    }
+
+    @Test
+    void compatibleWithLibraryHmac256() {
+        byte[] header = "header".getBytes(StandardCharsets.UTF_8);
+        byte[] payload = "payload".getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(Algorithm.HMAC256(SECRET).sign(header, payload),
+                ThreadLocalHmacAlgorithm.hmac256(SECRET).sign(header, payload));
+
+        String token = JWT.create().withClaim("id", 1).sign(Algorithm.HMAC256(SECRET));
+        assertEquals(1, tokenService.verifyToken(token).getClaim("id").asInt());
+    }
+
+    @Test
+    void rejectsTokenSignedWithAnotherSecret() {
+        String token = JWT.create().withClaim("id", 1).sign(Algorithm.HMAC256("another"));
+
+        assertThrows(SignatureVerificationException.class, () -> tokenService.verifyToken(token));
+    }
+
+    @Test
+    void rejectsTamperedSignature() {
+        String token = tokenService.createToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(SignatureVerificationException.class, () -> tokenService.verifyToken(tampered));
+    }
+
+    @Test
+    void rejectsExpiredToken() {
+        String token = JWT.create().withClaim("id", 1)
+                .withExpiresAt(new Date(System.currentTimeMillis() - 60_000))
+                .sign(Algorithm.HMAC256(SECRET));
+
+        assertThrows(TokenExpiredException.class, () -> tokenService.verifyToken(token));
+    }
+
+    @Test
+    void rs256TokenVerifiedByNodeWithOnlyPublicKey(@TempDir Path keys) throws Exception {
+        KeyPair keyPair = TestKeys.rsa();
+        Path signerKeys = Files.createDirectory(keys.resolve("signer"));
+        Path verifierKeys = Files.createDirectory(keys.resolve("verifier"));
+        TestKeys.writePrivateKey(signerKeys, "rsa-1", keyPair);
+        TestKeys.writePublicKey(verifierKeys, "rsa-1", keyPair);
+
+        TokenService signer = asymmetric("RS256", signerKeys, SECRET);
+        TokenService verifier = asymmetric("RS256", verifierKeys, null);
+        String token = signer.createToken(user);
+
+        DecodedJWT decodedJWT = verifier.verifyToken(token);
+        assertEquals("RS256", decodedJWT.getAlgorithm());
+        assertEquals("rsa-1", decodedJWT.getKeyId());
+        assertEquals(1, decodedJWT.getClaim("id").asInt());
+        // 只有公钥的节点不能签发
+        assertThrows(IllegalStateException.class, () -> verifier.createToken(user));
+        // 没有 jwt.secret 的节点不接受 HS256
+        assertThrows(AlgorithmMismatchException.class, () -> verifier.verifyToken(tokenService.createToken(user)));
+    }
+
+    @Test
+    void es256TokenVerifiedByKid(@TempDir Path keys) throws Exception {
+        KeyPair keyPair = TestKeys.ec();
+        TestKeys.writePrivateKey(keys, "ec-1", keyPair);
+        TestKeys.writePublicKey(keys, "ec-1", keyPair);
+        TestKeys.writePublicKey(keys, "ec-2", TestKeys.ec());
+
+        TokenService service = asymmetric("ES256", keys, null);
+
+        assertEquals("ec-1", service.verifyToken(service.createToken(user)).getKeyId());
+    }
+
+    @Test
+    void rejectsUnknownOrMismatchedKid(@TempDir Path keys) throws Exception {
+        KeyPair keyPair = TestKeys.rsa();
+        TestKeys.writePublicKey(keys, "rsa-1", keyPair);
+        TestKeys.writePublicKey(keys, "ec-1", TestKeys.ec());
+        TokenService service = asymmetric("RS256", keys, null);
+        Algorithm rs256 = Algorithm.RSA256(null, (RSAPrivateKey) keyPair.getPrivate());
+
+        assertEquals(1, service.verifyToken(JWT.create().withKeyId("rsa-1").withClaim("id", 1).sign(rs256))
+                .getClaim("id").asInt());
+        assertThrows(SignatureVerificationException.class,
+                () -> service.verifyToken(JWT.create().withKeyId("rsa-9").withClaim("id", 1).sign(rs256)));
+        assertThrows(SignatureVerificationException.class,
+                () -> service.verifyToken(JWT.create().withKeyId("ec-1").withClaim("id", 1).sign(rs256)));
+        assertThrows(SignatureVerificationException.class,
+                () -> service.verifyToken(JWT.create().withClaim("id", 1).sign(rs256)));
+    }
+
+    private TokenService asymmetric(String algorithm, Path keys, String secret) throws IOException {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setAlgorithm(algorithm);
+        jwtProperties.setSecret(secret);
+        jwtProperties.getKeys().setDirectory(keys.toString());
+        JwtKeyRing keyRing = new JwtKeyRing(jwtProperties);
+        keyRings.add(keyRing);
+        return new TokenServiceImpl(jwtProperties, keyRing);
+    }
+}
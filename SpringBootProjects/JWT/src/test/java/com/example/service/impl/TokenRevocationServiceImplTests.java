@@ -0,0 +1,65 @@
+package com.example.service.impl;
+
+import com.example.cache.VerifiedTokenCache;
+import com.example.config.JwtProperties;
+import com.example.entity.User;
+import com.example.revocation.InMemoryRevocationStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationServiceImplTests {
+
+    private JwtProperties jwtProperties;
+
+    private TokenServiceImpl tokenService;
+
+    private VerifiedTokenCache cache;
+
+    private TokenRevocationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        jwtProperties = new JwtProperties();
+        jwtProperties.setSecret("token!Q@W3e4r");
+        tokenService = new TokenServiceImpl(jwtProperties);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(tokenService, jwtProperties, meterRegistry);
+        service = new TokenRevocationServiceImpl(jwtProperties, new InMemoryRevocationStore(), cache, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    private String token() {
+        User user = new User();
+        user.setId(1);
+        user.setUserName("chenzufeng");
+        return tokenService.createToken(user);
+    }
+
+    @Test
+    void revokedTokenIsRejected() {
+        String token = token();
+
+        service.revoke(token);
+
+        assertTrue(service.isRevoked(cache.authenticate(token)));
+        assertFalse(service.isRevoked(cache.authenticate(token())));
+    }
+
+    @Test
+    void purgeKeepsRevocationsOfUnexpiredTokens() {
+        String token = token();
+        service.revoke(token);
+
+        service.purgeExpired();
+
+        assertTrue(service.isRevoked(cache.authenticate(token)));
+    }
+}
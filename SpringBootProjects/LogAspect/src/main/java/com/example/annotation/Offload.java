@@ -0,0 +1,28 @@
+package com.example.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage Offload 把阻塞方法放到 OffloadAspect 的线程池（或虚拟线程）中执行，调用线程立即返回
+ * 被注解的方法必须返回 CompletableFuture，方法体内照常阻塞，最后返回 CompletableFuture.completedFuture(结果)
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Offload {
+    /**
+     * 该方法同时执行的最大个数，不使用虚拟线程时超过 log-aspect.offload.max-threads 的部分按 max-threads 执行
+     */
+    int maxConcurrency() default 200;
+
+    /**
+     * 超过 maxConcurrency 后最多排队的个数，再多的调用直接以 RejectedExecutionException 失败
+     */
+    int maxQueued() default 10000;
+}
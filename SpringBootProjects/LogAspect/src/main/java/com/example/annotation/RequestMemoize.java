@@ -0,0 +1,19 @@
+package com.example.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage RequestMemoize 在同一个 HTTP 请求内缓存方法结果，方法和参数相同的调用只执行一次
+ * 只用于幂等方法；参数需要正确实现 equals 和 hashCode；不在请求线程中调用时不缓存
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequestMemoize {
+}
@@ -0,0 +1,73 @@
+package com.example.aspect;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage CompactLogAspect 精简的调用跟踪，log-aspect.mode=compact 时代替 LogAspect
+ * 只有一个环绕通知，进入、退出、返回值、异常和耗时合并为一条 key=value 格式的日志，
+ * 日志级别关闭时不获取参数、不拼接字符串
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "log-aspect", name = "mode", havingValue = "compact")
+public class CompactLogAspect {
+    private static final Logger logger = LoggerFactory.getLogger(CompactLogAspect.class);
+
+    @Autowired
+    private MethodAllowList methodAllowList;
+
+    /**
+     * 与 LogAspect 相同：service包下任意类、类中任意方法、任意参数
+     */
+    @Pointcut("execution(* com.example.service.*.*(..))")
+    public void pointCut() {}
+
+    @Around(value = "pointCut()")
+    public Object trace(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
+        if (!methodAllowList.isAllowed(proceedingJoinPoint)) {
+            return proceedingJoinPoint.proceed();
+        }
+
+        long startTime = System.nanoTime();
+        Object result = null;
+        Throwable failure = null;
+        try {
+            result = proceedingJoinPoint.proceed();
+            return result;
+        } catch (Throwable throwable) {
+            failure = throwable;
+            throw throwable;
+        } finally {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime);
+            if (failure == null) {
+                if (logger.isInfoEnabled()) {
+                    logger.info("event=call method={}.{} args={} outcome=returned result={} durationMicros={}",
+                            className(proceedingJoinPoint), proceedingJoinPoint.getSignature().getName(),
+                            Arrays.toString(proceedingJoinPoint.getArgs()), result, micros);
+                }
+            } else if (logger.isWarnEnabled()) {
+                logger.warn("event=call method={}.{} args={} outcome=threw exception={} durationMicros={}",
+                        className(proceedingJoinPoint), proceedingJoinPoint.getSignature().getName(),
+                        Arrays.toString(proceedingJoinPoint.getArgs()), failure.toString(), micros);
+            }
+        }
+    }
+
+    private static String className(ProceedingJoinPoint proceedingJoinPoint) {
+        return ((MethodSignature) proceedingJoinPoint.getSignature()).getDeclaringType().getSimpleName();
+    }
+}
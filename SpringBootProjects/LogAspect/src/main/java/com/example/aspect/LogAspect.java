@@ -5,29 +5,28 @@ import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * @author chenzufeng
  * @date 2021/11/7
  * @usage LogAspect
+ * log-aspect.mode=verbose（默认）时生效，compact 时由 CompactLogAspect 代替
  */
 @Aspect
 @Component
+@ConditionalOnProperty(prefix = "log-aspect", name = "mode", havingValue = "verbose", matchIfMissing = true)
 public class LogAspect {
     private static final Logger logger = LoggerFactory.getLogger(LogAspect.class);
 
     /**
-     * 设置方法白名单
-     * 方法中含有User才会进行处理
+     * 方法白名单，由 log-aspect.allow-methods 配置
+     * 方法名中含有白名单字符串才会进行处理，其余方法在每个通知中只有一次查找
      */
-    private static List<String> allowMethods = new ArrayList<>();
-    static {
-        allowMethods.add("User");
-    }
+    @Autowired
+    private MethodAllowList methodAllowList;
 
     /**
      * 方法返回任意值，service包下任意类、类中任意方法、任意参数
@@ -41,6 +40,9 @@ public class LogAspect {
      */
     @Before(value = "pointCut()")
     public void before(JoinPoint joinPoint) {
+        if (!methodAllowList.isAllowed(joinPoint)) {
+            return;
+        }
         logger.info("========================开始执行前置通知========================");
         String name = joinPoint.getSignature().getName();
         logger.info("{} 方法开始执行。。。", name);
@@ -52,6 +54,9 @@ public class LogAspect {
      */
     @After(value = "pointCut()")
     public void after(JoinPoint joinPoint) {
+        if (!methodAllowList.isAllowed(joinPoint)) {
+            return;
+        }
         logger.info("========================开始执行后置通知========================");
         String name = joinPoint.getSignature().getName();
         logger.info("{} 方法执行结束！", name);
@@ -64,6 +69,9 @@ public class LogAspect {
      */
     @AfterReturning(value = "pointCut()", returning = "result")
     public void afterReturning(JoinPoint joinPoint, Object result) {
+        if (!methodAllowList.isAllowed(joinPoint)) {
+            return;
+        }
         logger.info("========================开始执行返回通知========================");
         // 返回目标对象，即被代理对象
         Object target = joinPoint.getTarget();
@@ -89,6 +97,9 @@ public class LogAspect {
      */
     @AfterThrowing(value = "pointCut()", throwing = "exception")
     public void afterThrowing(JoinPoint joinPoint, Exception exception) {
+        if (!methodAllowList.isAllowed(joinPoint)) {
+            return;
+        }
         logger.info("========================开始执行异常通知========================");
         String name = joinPoint.getSignature().getName();
         logger.info("{} 方法抛出 {} 异常！", name, exception);
@@ -100,14 +111,11 @@ public class LogAspect {
      */
     @Around(value = "pointCut()")
     public Object afterThrowing(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
-        String methodName = proceedingJoinPoint.getSignature().getName();
-        /*
-        * 检测是否不存在满足指定行为的元素，如果不存在则返回true（如果此字符串中没有这样的字符，则返回 -1）
-        * methodName.indexOf(method) != -1 是否满足？不满足（methodName中没有allowMethods中字符），返回true
-        * */
-        if (allowMethods.stream().noneMatch(method -> methodName.indexOf(method) != -1)) {
+        // 不在白名单中的方法直接放行，判断结果按 Method 缓存
+        if (!methodAllowList.isAllowed(proceedingJoinPoint)) {
             return proceedingJoinPoint.proceed();
         }
+        String methodName = proceedingJoinPoint.getSignature().getName();
         logger.info("========================开始执行环绕通知========================");
 
         // 统计方法执行时间
@@ -0,0 +1,80 @@
+package com.example.aspect;
+
+import com.example.config.LogAspectProperties;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage MethodAllowList LogAspect 的方法白名单
+ * 每个 Method 只用 MethodNameMatcher 判断一次，结果按 Method 缓存，之后每次调用只有一次 Map 查找；
+ * 白名单修改后整体替换白名单、自动机和缓存，不需要重启。初始值来自 log-aspect.allow-methods，
+ * 运行时通过 actuator 端点 LogAspectEndpoint 修改
+ */
+@Component
+public class MethodAllowList {
+    private static final Logger logger = LoggerFactory.getLogger(MethodAllowList.class);
+
+    /**
+     * 白名单、自动机与它的判断结果必须一起替换，避免新自动机读到旧缓存；创建后白名单和自动机不再修改
+     */
+    private static final class Snapshot {
+        private final List<String> patterns;
+
+        private final MethodNameMatcher matcher;
+
+        private final ConcurrentMap<Method, Boolean> decisions = new ConcurrentHashMap<>();
+
+        private Snapshot(List<String> patterns) {
+            this.matcher = new MethodNameMatcher(patterns);
+            this.patterns = Collections.unmodifiableList(matcher.getPatterns());
+        }
+    }
+
+    private volatile Snapshot snapshot;
+
+    public MethodAllowList(LogAspectProperties logAspectProperties) {
+        this.snapshot = new Snapshot(logAspectProperties.getAllowMethods());
+    }
+
+    /**
+     * @param joinPoint 连接点
+     * @return 被拦截的方法是否在白名单中
+     */
+    public boolean isAllowed(JoinPoint joinPoint) {
+        return isAllowed(((MethodSignature) joinPoint.getSignature()).getMethod());
+    }
+
+    public boolean isAllowed(Method method) {
+        Snapshot current = snapshot;
+        Boolean allowed = current.decisions.get(method);
+        if (allowed == null) {
+            allowed = current.decisions.computeIfAbsent(method, key -> current.matcher.matches(key.getName()));
+        }
+        return allowed;
+    }
+
+    public List<String> getPatterns() {
+        return snapshot.patterns;
+    }
+
+    /**
+     * 替换白名单，已缓存的判断结果全部失效
+     * @param patterns 新的白名单
+     */
+    public void reload(List<String> patterns) {
+        Snapshot replacement = new Snapshot(patterns);
+        snapshot = replacement;
+        logger.info("LogAspect 方法白名单已更新为 {}", replacement.patterns);
+    }
+}
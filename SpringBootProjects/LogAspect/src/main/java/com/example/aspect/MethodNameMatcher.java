@@ -0,0 +1,100 @@
+package com.example.aspect;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage MethodNameMatcher 由白名单构建的 Aho-Corasick 自动机
+ * 构建后不可修改，只需扫描一遍方法名就能判断是否包含任意一个白名单字符串，耗时与白名单长度无关
+ */
+public final class MethodNameMatcher {
+
+    private static final class Node {
+        private final Map<Character, Node> next = new HashMap<>();
+
+        private Node fail;
+
+        /**
+         * 从根节点到当前节点，或者经由失败指针可达的节点中，存在一个完整的白名单字符串
+         */
+        private boolean terminal;
+    }
+
+    private final Node root = new Node();
+
+    private final List<String> patterns;
+
+    public MethodNameMatcher(Collection<String> patterns) {
+        List<String> accepted = new ArrayList<>();
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.isEmpty()) {
+                continue;
+            }
+            accepted.add(pattern);
+            Node node = root;
+            for (int i = 0; i < pattern.length(); i++) {
+                node = node.next.computeIfAbsent(pattern.charAt(i), key -> new Node());
+            }
+            node.terminal = true;
+        }
+        this.patterns = accepted;
+        buildFailLinks();
+    }
+
+    /**
+     * 按层次遍历为每个节点设置失败指针，并把失败指针上的 terminal 合并到当前节点
+     */
+    private void buildFailLinks() {
+        Queue<Node> queue = new ArrayDeque<>();
+        for (Node child : root.next.values()) {
+            child.fail = root;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (Map.Entry<Character, Node> entry : node.next.entrySet()) {
+                Node child = entry.getValue();
+                Node fail = node.fail;
+                while (fail != root && !fail.next.containsKey(entry.getKey())) {
+                    fail = fail.fail;
+                }
+                Node target = fail.next.get(entry.getKey());
+                child.fail = target == null || target == child ? root : target;
+                child.terminal |= child.fail.terminal;
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * @param name 方法名
+     * @return 方法名中是否含有任意一个白名单字符串
+     */
+    public boolean matches(CharSequence name) {
+        Node node = root;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            Node next = node.next.get(c);
+            while (next == null && node != root) {
+                node = node.fail;
+                next = node.next.get(c);
+            }
+            node = next == null ? root : next;
+            if (node.terminal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<String> getPatterns() {
+        return patterns;
+    }
+}
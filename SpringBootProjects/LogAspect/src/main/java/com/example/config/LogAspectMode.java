@@ -0,0 +1,18 @@
+package com.example.config;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage LogAspectMode LogAspect 的输出方式
+ */
+public enum LogAspectMode {
+    /**
+     * 五个通知分别输出多行日志
+     */
+    VERBOSE,
+
+    /**
+     * 只用一个环绕通知，每次调用输出一条结构化日志
+     */
+    COMPACT
+}
@@ -0,0 +1,196 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage LogAspectProperties LogAspect 配置，前缀为 log-aspect
+ */
+@Component
+@ConfigurationProperties(prefix = "log-aspect")
+public class LogAspectProperties {
+
+    /**
+     * 方法白名单：方法名中含有其中任意一个字符串才会被 LogAspect 处理
+     */
+    private List<String> allowMethods = new ArrayList<>(Collections.singletonList("User"));
+
+    /**
+     * 输出方式，修改后需要重启
+     */
+    private LogAspectMode mode = LogAspectMode.VERBOSE;
+
+    private SlowCall slowCall = new SlowCall();
+
+    private Offload offload = new Offload();
+
+    public List<String> getAllowMethods() {
+        return allowMethods;
+    }
+
+    public void setAllowMethods(List<String> allowMethods) {
+        this.allowMethods = allowMethods;
+    }
+
+    public LogAspectMode getMode() {
+        return mode;
+    }
+
+    public void setMode(LogAspectMode mode) {
+        this.mode = mode;
+    }
+
+    public SlowCall getSlowCall() {
+        return slowCall;
+    }
+
+    public void setSlowCall(SlowCall slowCall) {
+        this.slowCall = slowCall;
+    }
+
+    public Offload getOffload() {
+        return offload;
+    }
+
+    public void setOffload(Offload offload) {
+        this.offload = offload;
+    }
+
+    public static class SlowCall {
+        /**
+         * 是否开启慢调用检测
+         */
+        private boolean enabled = false;
+
+        /**
+         * 执行时间超过该值的调用视为慢调用
+         */
+        private Duration threshold = Duration.ofSeconds(1);
+
+        /**
+         * 检查进行中调用的间隔，也是同一个慢调用两次抓取线程栈的最小间隔
+         */
+        private Duration sampleInterval = Duration.ofMillis(200);
+
+        /**
+         * 每个慢调用最多保存的线程栈个数
+         */
+        private int maxSamplesPerCall = 5;
+
+        /**
+         * 所有慢调用合计每秒最多抓取的线程栈个数
+         */
+        private int maxSamplesPerSecond = 20;
+
+        /**
+         * 每个线程栈最多保存的帧数
+         */
+        private int maxStackDepth = 32;
+
+        /**
+         * 最多保存的已结束慢调用个数，超过后丢弃最早的
+         */
+        private int historySize = 100;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(Duration threshold) {
+            this.threshold = threshold;
+        }
+
+        public Duration getSampleInterval() {
+            return sampleInterval;
+        }
+
+        public void setSampleInterval(Duration sampleInterval) {
+            this.sampleInterval = sampleInterval;
+        }
+
+        public int getMaxSamplesPerCall() {
+            return maxSamplesPerCall;
+        }
+
+        public void setMaxSamplesPerCall(int maxSamplesPerCall) {
+            this.maxSamplesPerCall = maxSamplesPerCall;
+        }
+
+        public int getMaxSamplesPerSecond() {
+            return maxSamplesPerSecond;
+        }
+
+        public void setMaxSamplesPerSecond(int maxSamplesPerSecond) {
+            this.maxSamplesPerSecond = maxSamplesPerSecond;
+        }
+
+        public int getMaxStackDepth() {
+            return maxStackDepth;
+        }
+
+        public void setMaxStackDepth(int maxStackDepth) {
+            this.maxStackDepth = maxStackDepth;
+        }
+
+        public int getHistorySize() {
+            return historySize;
+        }
+
+        public void setHistorySize(int historySize) {
+            this.historySize = historySize;
+        }
+    }
+
+    public static class Offload {
+        /**
+         * 运行在 JDK 21 及以上时是否使用虚拟线程
+         */
+        private boolean virtualThreads = true;
+
+        /**
+         * 不使用虚拟线程时线程池的最大线程数，线程空闲 keepAlive 后回收
+         */
+        private int maxThreads = 1000;
+
+        private Duration keepAlive = Duration.ofSeconds(60);
+
+        public boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
+        public void setVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+        }
+
+        public int getMaxThreads() {
+            return maxThreads;
+        }
+
+        public void setMaxThreads(int maxThreads) {
+            this.maxThreads = maxThreads;
+        }
+
+        public Duration getKeepAlive() {
+            return keepAlive;
+        }
+
+        public void setKeepAlive(Duration keepAlive) {
+            this.keepAlive = keepAlive;
+        }
+    }
+}
@@ -7,6 +7,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * @author chenzufeng
  * @date 2021/11/7
@@ -23,6 +25,14 @@ public class HelloController {
         return userService.getUserById(id);
     }
 
+    /**
+     * 返回 CompletableFuture 时 Spring MVC 以异步方式处理，Tomcat 线程在等待期间被释放
+     */
+    @GetMapping("/getUserByIdAsync")
+    public CompletableFuture<String> getUserByIdAsync(Integer id) {
+        return userService.getUserByIdAsync(id);
+    }
+
     @GetMapping("/getInfo")
     public String getInfo(@RequestParam String message) {
         return userService.getInfo(message);
@@ -0,0 +1,44 @@
+package com.example.endpoint;
+
+import com.example.aspect.MethodAllowList;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage LogAspectEndpoint 运行时查看和修改 LogAspect 的方法白名单，/actuator/logaspect
+ * 修改白名单属于管理操作，只通过 actuator 提供：默认不对外暴露，需要在 management.endpoints.web.exposure.include
+ * 中加入 logaspect，并建议用 management.server.port 放到只在内网开放的管理端口上
+ */
+@Component
+@Endpoint(id = "logaspect")
+public class LogAspectEndpoint {
+
+    private final MethodAllowList methodAllowList;
+
+    public LogAspectEndpoint(MethodAllowList methodAllowList) {
+        this.methodAllowList = methodAllowList;
+    }
+
+    @ReadOperation
+    public List<String> allowMethods() {
+        return methodAllowList.getPatterns();
+    }
+
+    /**
+     * 例如：curl -X POST -H "Content-Type: application/json" -d '{"allowMethods":"User,Info"}' localhost:8080/actuator/logaspect
+     * @param allowMethods 新的白名单，与 log-aspect.allow-methods 相同，多个用逗号分隔
+     */
+    @WriteOperation
+    public List<String> reloadAllowMethods(String allowMethods) {
+        methodAllowList.reload(Arrays.asList(StringUtils.tokenizeToStringArray(allowMethods, ",")));
+        return methodAllowList.getPatterns();
+    }
+}
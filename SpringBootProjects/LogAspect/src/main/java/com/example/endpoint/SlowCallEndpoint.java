@@ -0,0 +1,63 @@
+package com.example.endpoint;
+
+import com.example.watchdog.SlowCallReport;
+import com.example.watchdog.SlowCallWatchdog;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage SlowCallEndpoint 查看慢调用，/actuator/slowcalls，log-aspect.slow-call.enabled=true 时可用
+ * 返回内容包含进行中调用的线程栈，只通过 actuator 提供：默认不对外暴露，需要在 management.endpoints.web.exposure.include
+ * 中加入 slowcalls，并建议用 management.server.port 放到只在内网开放的管理端口上
+ */
+@Component
+@Endpoint(id = "slowcalls")
+@ConditionalOnProperty(prefix = "log-aspect.slow-call", name = "enabled", havingValue = "true")
+public class SlowCallEndpoint {
+
+    private static final String CURRENT = "current";
+
+    private static final String RECENT = "recent";
+
+    private final SlowCallWatchdog slowCallWatchdog;
+
+    public SlowCallEndpoint(SlowCallWatchdog slowCallWatchdog) {
+        this.slowCallWatchdog = slowCallWatchdog;
+    }
+
+    /**
+     * current 为仍在执行且已超过阈值的调用，recent 为最近结束的慢调用
+     */
+    @ReadOperation
+    public Map<String, List<SlowCallReport>> slowCalls() {
+        Map<String, List<SlowCallReport>> slowCalls = new LinkedHashMap<>();
+        slowCalls.put(CURRENT, slowCallWatchdog.current());
+        slowCalls.put(RECENT, slowCallWatchdog.recent());
+        return slowCalls;
+    }
+
+    /**
+     * /actuator/slowcalls/current 或 /actuator/slowcalls/recent
+     * @param kind current 或 recent
+     * @return 对应的慢调用，其他取值返回 null（404）
+     */
+    @ReadOperation
+    public List<SlowCallReport> slowCallsOf(@Selector String kind) {
+        if (CURRENT.equals(kind)) {
+            return slowCallWatchdog.current();
+        }
+        if (RECENT.equals(kind)) {
+            return slowCallWatchdog.recent();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.memoize;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage MemoKey 方法和参数组成的缓存键，直接持有 getArgs() 返回的数组，hashCode 只计算一次
+ */
+final class MemoKey {
+
+    private final Method method;
+
+    private final Object[] args;
+
+    private final int hash;
+
+    MemoKey(Method method, Object[] args) {
+        this.method = method;
+        this.args = args;
+        this.hash = 31 * method.hashCode() + Arrays.hashCode(args);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MemoKey)) {
+            return false;
+        }
+        MemoKey other = (MemoKey) o;
+        return hash == other.hash && method.equals(other.method) && Arrays.equals(args, other.args);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.memoize;
+
+import com.example.offload.OffloadAspect;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage RequestMemoizeAspect @RequestMemoize 的实现
+ * 结果以 CompletableFuture 的形式保存在请求属性中，请求结束时随请求一起释放；
+ * 同一请求内并发的相同调用等待第一个调用的结果，调用失败时移除缓存，之后的调用重新执行；
+ * 第一个调用执行期间在同一线程内再次以相同参数调用（递归）时直接执行，不等待自己的结果
+ */
+@Aspect
+@Component
+@Order(OffloadAspect.ORDER + 2)
+public class RequestMemoizeAspect {
+
+    private static final String ATTRIBUTE = RequestMemoizeAspect.class.getName() + ".MEMO";
+
+    /**
+     * 正在计算的结果，记录计算所在的线程
+     */
+    private static final class InFlight extends CompletableFuture<Object> {
+        private final Thread owner = Thread.currentThread();
+    }
+
+    @Around("@annotation(com.example.annotation.RequestMemoize)")
+    public Object memoize(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
+        ConcurrentMap<MemoKey, CompletableFuture<Object>> memo = currentMemo();
+        if (memo == null) {
+            return proceedingJoinPoint.proceed();
+        }
+
+        MemoKey key = new MemoKey(((MethodSignature) proceedingJoinPoint.getSignature()).getMethod(),
+                proceedingJoinPoint.getArgs());
+        CompletableFuture<Object> existing = memo.get(key);
+        if (existing == null) {
+            CompletableFuture<Object> future = new InFlight();
+            existing = memo.putIfAbsent(key, future);
+            if (existing == null) {
+                return compute(proceedingJoinPoint, memo, key, future);
+            }
+        }
+        if (!existing.isDone() && ((InFlight) existing).owner == Thread.currentThread()) {
+            // 外层调用正在本线程中计算，等待它会死锁
+            return proceedingJoinPoint.proceed();
+        }
+        try {
+            return existing.join();
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Object compute(ProceedingJoinPoint proceedingJoinPoint,
+                                  ConcurrentMap<MemoKey, CompletableFuture<Object>> memo,
+                                  MemoKey key, CompletableFuture<Object> future) throws Throwable {
+        try {
+            Object result = proceedingJoinPoint.proceed();
+            future.complete(result);
+            return result;
+        } catch (Throwable throwable) {
+            memo.remove(key, future);
+            future.completeExceptionally(throwable);
+            throw throwable;
+        }
+    }
+
+    /**
+     * @return 当前请求的缓存，不在请求中时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    private static ConcurrentMap<MemoKey, CompletableFuture<Object>> currentMemo() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return null;
+        }
+        Object memo = requestAttributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            // 子线程继承请求属性时可能并发创建
+            synchronized (requestAttributes) {
+                memo = requestAttributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+                if (memo == null) {
+                    memo = new ConcurrentHashMap<>(4);
+                    requestAttributes.setAttribute(ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+                }
+            }
+        }
+        return (ConcurrentMap<MemoKey, CompletableFuture<Object>>) memo;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.offload;
+
+import com.example.annotation.Offload;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage OffloadAnnotationValidator 启动时检查所有 Bean 上的 @Offload 方法
+ * OffloadLane 在方法第一次被调用时才创建，返回类型或参数不对时要到调用时才发现，这里提前到 Bean 初始化时失败
+ */
+@Component
+public class OffloadAnnotationValidator implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        ReflectionUtils.doWithMethods(targetClass, method -> {
+            Offload offload = AnnotationUtils.findAnnotation(method, Offload.class);
+            if (offload == null) {
+                return;
+            }
+            if (!CompletableFuture.class.isAssignableFrom(method.getReturnType())) {
+                throw new BeanInitializationException("Bean '" + beanName + "' 的 @Offload 方法必须返回 CompletableFuture：" + method);
+            }
+            if (offload.maxConcurrency() <= 0 || offload.maxQueued() < 0) {
+                throw new BeanInitializationException("Bean '" + beanName + "' 的 @Offload 配置非法，maxConcurrency 须大于 0，"
+                        + "maxQueued 不能小于 0：" + method);
+            }
+        }, ReflectionUtils.USER_DECLARED_METHODS);
+        return bean;
+    }
+}
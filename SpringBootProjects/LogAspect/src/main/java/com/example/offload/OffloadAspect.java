@@ -0,0 +1,84 @@
+package com.example.offload;
+
+import com.example.annotation.Offload;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage OffloadAspect 把 @Offload 方法放到 OffloadExecutor 中执行，调用线程立即拿到 CompletableFuture
+ * 位于最外层，其余切面（LogAspect、SlowCallAspect 等）和目标方法都在执行线程中运行；
+ * 顺序必须在 ExposeInvocationInterceptor（HIGHEST_PRECEDENCE + 1）之后，否则无法绑定注解参数。
+ * 返回类型和参数在启动时由 OffloadAnnotationValidator 检查
+ */
+@Aspect
+@Component
+@Order(OffloadAspect.ORDER)
+public class OffloadAspect {
+    private static final Logger logger = LoggerFactory.getLogger(OffloadAspect.class);
+
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 2;
+
+    @Autowired
+    private OffloadExecutor offloadExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<Method, OffloadLane> lanes = new ConcurrentHashMap<>();
+
+    @Around("@annotation(offload)")
+    public Object offload(ProceedingJoinPoint proceedingJoinPoint, Offload offload) {
+        Method method = ((MethodSignature) proceedingJoinPoint.getSignature()).getMethod();
+        OffloadLane lane = lanes.get(method);
+        if (lane == null) {
+            lane = lanes.computeIfAbsent(method, key -> createLane(key, offload));
+        }
+
+        // 后续切面通过 ThreadLocal 获取当前调用，换线程执行时需要在执行线程中重新设置
+        MethodInvocation invocation = ((ProxyMethodInvocation) ExposeInvocationInterceptor.currentInvocation()).invocableClone();
+        return lane.submit(() -> (CompletableFuture<?>) ExposeInvocationInterceptor.INSTANCE.invoke(invocation));
+    }
+
+    private OffloadLane createLane(Method method, Offload offload) {
+        String name = laneName(method);
+        // 超过线程数的许可没有线程可用，多出的调用留在 OffloadLane 的队列中，计入 queued 指标
+        int maxConcurrency = Math.min(offload.maxConcurrency(), offloadExecutor.getMaxConcurrency());
+        if (maxConcurrency < offload.maxConcurrency()) {
+            logger.warn("{} 的 @Offload(maxConcurrency = {}) 超过线程数上限，按 {} 执行",
+                    name, offload.maxConcurrency(), maxConcurrency);
+        }
+        return new OffloadLane(name, maxConcurrency, offload.maxQueued(), offloadExecutor, meterRegistry);
+    }
+
+    /**
+     * 指标 method 标签的取值：类名.方法名(参数类型,...)
+     * 队列按 Method 区分，标签也必须带上参数类型，否则重载方法的 gauge 注册到同一组标签上，只有第一个生效
+     */
+    static String laneName(Method method) {
+        StringJoiner parameters = new StringJoiner(",", "(", ")");
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            parameters.add(parameterType.getSimpleName());
+        }
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName() + parameters;
+    }
+}
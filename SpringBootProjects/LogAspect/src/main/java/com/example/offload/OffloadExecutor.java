@@ -0,0 +1,82 @@
+package com.example.offload;
+
+import com.example.config.LogAspectProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage OffloadExecutor 执行 @Offload 方法的线程
+ * 运行在 JDK 21 及以上时通过反射使用虚拟线程，每个任务一个虚拟线程；
+ * 否则使用按需创建、空闲回收的线程池，线程数上限为 maxThreads，各方法的并发数由 OffloadLane 限制。
+ * 单个方法的并发数由 OffloadAspect 限制在 maxThreads 以内；多个方法合计超过 maxThreads 时，
+ * 多出的任务在线程池的队列中等待空闲线程而不是被拒绝，队列长度不超过各方法并发数之和
+ */
+@Component
+public class OffloadExecutor implements Executor, DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(OffloadExecutor.class);
+
+    private final ExecutorService executorService;
+
+    /**
+     * 能同时执行的任务数，虚拟线程时不限
+     */
+    private final int maxConcurrency;
+
+    public OffloadExecutor(LogAspectProperties logAspectProperties) {
+        LogAspectProperties.Offload config = logAspectProperties.getOffload();
+        ExecutorService virtualThreadExecutor = config.isVirtualThreads() ? virtualThreadExecutor() : null;
+        if (virtualThreadExecutor != null) {
+            logger.info("@Offload 方法使用虚拟线程执行");
+            this.executorService = virtualThreadExecutor;
+            this.maxConcurrency = Integer.MAX_VALUE;
+        } else {
+            logger.info("@Offload 方法使用线程池执行，最大线程数 {}", config.getMaxThreads());
+            AtomicInteger threadNumber = new AtomicInteger();
+            ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(config.getMaxThreads(), config.getMaxThreads(),
+                    config.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "offload-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            // 核心线程数等于最大线程数，线程不足 maxThreads 时新建线程而不是排队，空闲后同样回收
+            threadPoolExecutor.allowCoreThreadTimeOut(true);
+            this.executorService = threadPoolExecutor;
+            this.maxConcurrency = config.getMaxThreads();
+        }
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executorService.execute(command);
+    }
+
+    @Override
+    public void destroy() {
+        executorService.shutdownNow();
+    }
+}
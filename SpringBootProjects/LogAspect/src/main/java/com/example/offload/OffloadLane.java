@@ -0,0 +1,136 @@
+package com.example.offload;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage OffloadLane 一个 @Offload 方法的并发限制和排队
+ * 同时执行的任务数不超过 maxConcurrency，其余任务进入无锁队列；
+ * 每次入队和每个任务结束后都会尝试从队列中取任务执行，保证有空闲许可时队列中的任务不会被遗漏
+ */
+class OffloadLane {
+
+    interface Task {
+        CompletableFuture<?> call() throws Throwable;
+    }
+
+    private final Executor executor;
+
+    private final int maxQueued;
+
+    private final Semaphore permits;
+
+    private final Queue<Job> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final AtomicInteger active = new AtomicInteger();
+
+    private final Counter rejectedCounter;
+
+    private final Timer waitTimer;
+
+    OffloadLane(String method, int maxConcurrency, int maxQueued, Executor executor, MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.maxQueued = maxQueued;
+        this.permits = new Semaphore(maxConcurrency);
+
+        Gauge.builder("log.aspect.offload.active", active, AtomicInteger::get)
+                .description("正在执行的 @Offload 调用数")
+                .tag("method", method)
+                .register(meterRegistry);
+        Gauge.builder("log.aspect.offload.queued", queued, AtomicInteger::get)
+                .description("等待执行的 @Offload 调用数")
+                .tag("method", method)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("log.aspect.offload.rejected")
+                .description("因排队已满或线程不足被拒绝的 @Offload 调用数")
+                .tag("method", method)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("log.aspect.offload.wait")
+                .description("@Offload 调用从提交到开始执行的等待时间")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private final class Job implements Runnable {
+        private final Task task;
+
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+
+        private final long submitNanos = System.nanoTime();
+
+        private Job(Task task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            waitTimer.record(System.nanoTime() - submitNanos, TimeUnit.NANOSECONDS);
+            active.incrementAndGet();
+            try {
+                task.call().whenComplete((result, failure) -> {
+                    if (failure == null) {
+                        future.complete(result);
+                    } else {
+                        future.completeExceptionally(failure);
+                    }
+                });
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            } finally {
+                active.decrementAndGet();
+                permits.release();
+                drain();
+            }
+        }
+    }
+
+    CompletableFuture<Object> submit(Task task) {
+        Job job = new Job(task);
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            reject(job, "排队数已达上限 " + maxQueued);
+            return job.future;
+        }
+        queue.offer(job);
+        drain();
+        return job.future;
+    }
+
+    private void drain() {
+        while (!queue.isEmpty() && permits.tryAcquire()) {
+            Job job = queue.poll();
+            if (job == null) {
+                permits.release();
+                continue;
+            }
+            queued.decrementAndGet();
+            try {
+                executor.execute(job);
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                reject(job, e.getMessage());
+            }
+        }
+    }
+
+    private void reject(Job job, String reason) {
+        rejectedCounter.increment();
+        job.future.completeExceptionally(new RejectedExecutionException(reason));
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.service;
 
+import com.example.annotation.Offload;
+import com.example.annotation.RequestMemoize;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * @author chenzufeng
  * @date 2021/11/7
@@ -13,6 +17,7 @@ import org.springframework.stereotype.Service;
 public class UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
+    @RequestMemoize
     public String getUserById(Integer id) {
         logger.info("接口调用方法getUserById：{}", id);
         try {
@@ -23,6 +28,14 @@ public class UserService {
         return "chenzufeng";
     }
 
+    /**
+     * 与 getUserById 相同，但在 OffloadExecutor 中阻塞，不占用调用线程
+     */
+    @Offload(maxConcurrency = 2000)
+    public CompletableFuture<String> getUserByIdAsync(Integer id) {
+        return CompletableFuture.completedFuture(getUserById(id));
+    }
+
     public String getInfo(String message) {
         logger.info("接口调用getInfo方法：{}", message);
         return message;
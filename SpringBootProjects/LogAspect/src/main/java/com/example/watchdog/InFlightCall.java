@@ -0,0 +1,59 @@
+package com.example.watchdog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage InFlightCall 一次进行中的调用
+ * 由请求线程创建和结束，线程栈只由检测线程写入；samples 的读写都在自身锁内
+ */
+public class InFlightCall {
+
+    private final String method;
+
+    private final Thread thread;
+
+    private final long startTime = System.currentTimeMillis();
+
+    private final long startNanos = System.nanoTime();
+
+    private final List<StackSample> samples = new ArrayList<>(0);
+
+    /**
+     * 上次抓取线程栈的时间，只由检测线程访问
+     */
+    private long lastSampleNanos;
+
+    InFlightCall(String method, Thread thread) {
+        this.method = method;
+        this.thread = thread;
+    }
+
+    Thread getThread() {
+        return thread;
+    }
+
+    long getLastSampleNanos() {
+        return lastSampleNanos;
+    }
+
+    long elapsedNanos(long now) {
+        return now - startNanos;
+    }
+
+    synchronized int sampleCount() {
+        return samples.size();
+    }
+
+    synchronized void addSample(StackSample sample, long now) {
+        samples.add(sample);
+        lastSampleNanos = now;
+    }
+
+    synchronized SlowCallReport toReport(long elapsedMillis, boolean finished, String exception) {
+        return new SlowCallReport(method, thread.getName(), startTime, elapsedMillis, finished, exception,
+                new ArrayList<>(samples));
+    }
+}
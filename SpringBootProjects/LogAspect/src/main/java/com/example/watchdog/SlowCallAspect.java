@@ -0,0 +1,47 @@
+package com.example.watchdog;
+
+import com.example.offload.OffloadAspect;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage SlowCallAspect 把 service 包下的调用登记到 SlowCallWatchdog
+ * 位于 OffloadAspect 之内、其他切面之外，耗时包含其他切面的开销；@Offload 方法在执行线程中登记和抓取线程栈；
+ * 不受 LogAspect 方法白名单限制
+ */
+@Aspect
+@Component
+@Order(OffloadAspect.ORDER + 1)
+@ConditionalOnProperty(prefix = "log-aspect.slow-call", name = "enabled", havingValue = "true")
+public class SlowCallAspect {
+    @Autowired
+    private SlowCallWatchdog slowCallWatchdog;
+
+    /**
+     * 与 LogAspect 相同：service包下任意类、类中任意方法、任意参数
+     */
+    @Pointcut("execution(* com.example.service.*.*(..))")
+    public void pointCut() {}
+
+    @Around(value = "pointCut()")
+    public Object watch(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
+        long id = slowCallWatchdog.begin(proceedingJoinPoint.getSignature().toShortString());
+        Throwable failure = null;
+        try {
+            return proceedingJoinPoint.proceed();
+        } catch (Throwable throwable) {
+            failure = throwable;
+            throw throwable;
+        } finally {
+            slowCallWatchdog.end(id, failure);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.watchdog;
+
+import java.util.List;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage SlowCallReport 一次慢调用的信息，进行中的调用 finished 为 false
+ */
+public class SlowCallReport {
+
+    private final String method;
+
+    private final String threadName;
+
+    private final long startTime;
+
+    private final long elapsedMillis;
+
+    private final boolean finished;
+
+    private final String exception;
+
+    private final List<StackSample> samples;
+
+    public SlowCallReport(String method, String threadName, long startTime, long elapsedMillis,
+                          boolean finished, String exception, List<StackSample> samples) {
+        this.method = method;
+        this.threadName = threadName;
+        this.startTime = startTime;
+        this.elapsedMillis = elapsedMillis;
+        this.finished = finished;
+        this.exception = exception;
+        this.samples = samples;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public String getException() {
+        return exception;
+    }
+
+    public List<StackSample> getSamples() {
+        return samples;
+    }
+}
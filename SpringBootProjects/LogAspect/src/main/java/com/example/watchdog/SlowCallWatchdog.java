@@ -0,0 +1,184 @@
+package com.example.watchdog;
+
+import com.example.config.LogAspectProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage SlowCallWatchdog 慢调用检测
+ * 请求线程只在调用开始和结束时各访问一次 ConcurrentHashMap；后台检测线程按 sampleInterval 扫描进行中的调用，
+ * 超过阈值的调用在执行期间抓取线程栈，每个调用和每秒的抓取次数都有上限，已结束的慢调用只保留最近 historySize 个
+ */
+@Component
+@ConditionalOnProperty(prefix = "log-aspect.slow-call", name = "enabled", havingValue = "true")
+public class SlowCallWatchdog implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(SlowCallWatchdog.class);
+
+    private final LogAspectProperties.SlowCall config;
+
+    private final long thresholdNanos;
+
+    private final long sampleIntervalNanos;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ConcurrentMap<Long, InFlightCall> inFlight = new ConcurrentHashMap<>();
+
+    private final Deque<SlowCallReport> history = new ArrayDeque<>();
+
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * 每秒抓取次数的限流窗口，只由检测线程访问
+     */
+    private long windowStartNanos;
+
+    private int samplesInWindow;
+
+    public SlowCallWatchdog(LogAspectProperties logAspectProperties) {
+        this.config = logAspectProperties.getSlowCall();
+        this.thresholdNanos = config.getThreshold().toNanos();
+        this.sampleIntervalNanos = config.getSampleInterval().toNanos();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "slow-call-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::scan, sampleIntervalNanos, sampleIntervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 调用开始时在请求线程中调用
+     * @param method 方法名
+     * @return 与 end 配对使用的编号
+     */
+    public long begin(String method) {
+        long id = sequence.incrementAndGet();
+        inFlight.put(id, new InFlightCall(method, Thread.currentThread()));
+        return id;
+    }
+
+    /**
+     * 调用结束时在请求线程中调用，超过阈值的调用进入历史记录
+     * @param id begin 返回的编号
+     * @param failure 调用抛出的异常，正常返回时为 null
+     */
+    public void end(long id, Throwable failure) {
+        InFlightCall call = inFlight.remove(id);
+        if (call == null) {
+            return;
+        }
+        long elapsedNanos = call.elapsedNanos(System.nanoTime());
+        if (elapsedNanos < thresholdNanos) {
+            return;
+        }
+        SlowCallReport report = call.toReport(TimeUnit.NANOSECONDS.toMillis(elapsedNanos), true,
+                failure == null ? null : failure.toString());
+        logger.warn("慢调用 {} 耗时 {} ms，抓取线程栈 {} 次", report.getMethod(), report.getElapsedMillis(),
+                report.getSamples().size());
+        synchronized (history) {
+            if (history.size() >= config.getHistorySize()) {
+                history.pollFirst();
+            }
+            history.addLast(report);
+        }
+    }
+
+    /**
+     * @return 当前仍在执行且已超过阈值的调用
+     */
+    public List<SlowCallReport> current() {
+        long now = System.nanoTime();
+        List<SlowCallReport> reports = new ArrayList<>();
+        for (InFlightCall call : inFlight.values()) {
+            long elapsedNanos = call.elapsedNanos(now);
+            if (elapsedNanos >= thresholdNanos) {
+                reports.add(call.toReport(TimeUnit.NANOSECONDS.toMillis(elapsedNanos), false, null));
+            }
+        }
+        return reports;
+    }
+
+    /**
+     * @return 最近结束的慢调用，最新的在前
+     */
+    public List<SlowCallReport> recent() {
+        synchronized (history) {
+            List<SlowCallReport> reports = new ArrayList<>(history);
+            Collections.reverse(reports);
+            return reports;
+        }
+    }
+
+    private void scan() {
+        try {
+            long now = System.nanoTime();
+            for (Map.Entry<Long, InFlightCall> entry : inFlight.entrySet()) {
+                InFlightCall call = entry.getValue();
+                if (call.elapsedNanos(now) < thresholdNanos
+                        || call.sampleCount() >= config.getMaxSamplesPerCall()
+                        || (call.sampleCount() > 0 && now - call.getLastSampleNanos() < sampleIntervalNanos)) {
+                    continue;
+                }
+                if (!tryAcquireSample(now)) {
+                    return;
+                }
+                sample(entry.getKey(), call, now);
+            }
+        } catch (RuntimeException e) {
+            // 异常会终止定时任务，这里只记录
+            logger.error("慢调用检测失败", e);
+        }
+    }
+
+    private boolean tryAcquireSample(long now) {
+        if (now - windowStartNanos >= TimeUnit.SECONDS.toNanos(1)) {
+            windowStartNanos = now;
+            samplesInWindow = 0;
+        }
+        if (samplesInWindow >= config.getMaxSamplesPerSecond()) {
+            return false;
+        }
+        samplesInWindow++;
+        return true;
+    }
+
+    private void sample(long id, InFlightCall call, long now) {
+        Thread thread = call.getThread();
+        StackTraceElement[] stackTrace = thread.getStackTrace();
+        // 抓取期间调用已经结束，线程栈已不属于这次调用
+        if (inFlight.get(id) != call) {
+            return;
+        }
+        int depth = Math.min(stackTrace.length, config.getMaxStackDepth());
+        List<String> frames = new ArrayList<>(depth);
+        for (int i = 0; i < depth; i++) {
+            frames.add(stackTrace[i].toString());
+        }
+        call.addSample(new StackSample(TimeUnit.NANOSECONDS.toMillis(call.elapsedNanos(now)),
+                thread.getState().name(), frames), now);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.watchdog;
+
+import java.util.List;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/7
+ * @usage StackSample 慢调用执行期间抓取的一次线程栈
+ */
+public class StackSample {
+
+    /**
+     * 抓取时调用已执行的时间
+     */
+    private final long elapsedMillis;
+
+    private final String threadState;
+
+    private final List<String> frames;
+
+    public StackSample(long elapsedMillis, String threadState, List<String> frames) {
+        this.elapsedMillis = elapsedMillis;
+        this.threadState = threadState;
+        this.frames = frames;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public String getThreadState() {
+        return threadState;
+    }
+
+    public List<String> getFrames() {
+        return frames;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.aspect;
+
+import com.example.config.LogAspectProperties;
+import com.example.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LogAspectTests {
+
+    static class CountingAllowList extends MethodAllowList {
+        final AtomicInteger lookups = new AtomicInteger();
+
+        CountingAllowList() {
+            super(new LogAspectProperties());
+        }
+
+        @Override
+        public boolean isAllowed(Method method) {
+            lookups.incrementAndGet();
+            return super.isAllowed(method);
+        }
+    }
+
+    private final CountingAllowList allowList = new CountingAllowList();
+
+    private UserService proxy() {
+        LogAspect logAspect = new LogAspect();
+        ReflectionTestUtils.setField(logAspect, "methodAllowList", allowList);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new UserService());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(logAspect);
+        return proxyFactory.getProxy();
+    }
+
+    @Test
+    void looksUpAllowListOncePerAdvice() {
+        UserService userService = proxy();
+
+        // 不在白名单中：执行到的通知各查一次缓存的判断结果后直接返回；正常返回时异常通知不执行
+        assertEquals("a", userService.getInfo("a"));
+        assertEquals(4, allowList.lookups.get());
+
+        // 在白名单中，四类日志都输出，每个通知仍然只查一次
+        allowList.reload(Collections.singletonList("Info"));
+        assertEquals("b", userService.getInfo("b"));
+        assertEquals(8, allowList.lookups.get());
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.aspect;
+
+import com.example.config.LogAspectProperties;
+import com.example.service.UserService;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MethodAllowListTests {
+
+    @Test
+    void matchesAnyPatternAsSubstring() {
+        MethodNameMatcher matcher = new MethodNameMatcher(Arrays.asList("he", "she", "his", "hers", ""));
+
+        assertTrue(matcher.matches("ushers"));
+        assertTrue(matcher.matches("xhis"));
+        assertTrue(matcher.matches("ahe"));
+        assertFalse(matcher.matches("hxsx"));
+        assertFalse(matcher.matches(""));
+        assertEquals(Arrays.asList("he", "she", "his", "hers"), matcher.getPatterns());
+    }
+
+    @Test
+    void reloadDiscardsCachedDecisions() throws NoSuchMethodException {
+        MethodAllowList allowList = new MethodAllowList(new LogAspectProperties());
+        Method getUserById = UserService.class.getMethod("getUserById", Integer.class);
+        Method getInfo = UserService.class.getMethod("getInfo", String.class);
+
+        assertTrue(allowList.isAllowed(getUserById));
+        assertFalse(allowList.isAllowed(getInfo));
+
+        allowList.reload(Collections.singletonList("Info"));
+
+        assertFalse(allowList.isAllowed(getUserById));
+        assertTrue(allowList.isAllowed(getInfo));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.endpoint;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class LogAspectEndpointTests {
+
+    @Nested
+    @SpringBootTest
+    @AutoConfigureMockMvc
+    class NotExposed {
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Test
+        void allowListCannotBeChangedOverTheApplicationApi() throws Exception {
+            mockMvc.perform(post("/actuator/logaspect").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"allowMethods\":\"Info\"}")).andExpect(status().isNotFound());
+            mockMvc.perform(put("/LogAspectController/allowMethods").contentType(MediaType.APPLICATION_JSON)
+                    .content("[\"Info\"]")).andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @SpringBootTest(properties = "management.endpoints.web.exposure.include=logaspect")
+    @AutoConfigureMockMvc
+    class Exposed {
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Test
+        void readsAndReloadsAllowList() throws Exception {
+            mockMvc.perform(get("/actuator/logaspect")).andExpect(status().isOk())
+                    .andExpect(content().json("[\"User\"]"));
+            mockMvc.perform(post("/actuator/logaspect").contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"allowMethods\":\"User, Info\"}")).andExpect(status().isOk())
+                    .andExpect(content().json("[\"User\",\"Info\"]"));
+        }
+    }
+}
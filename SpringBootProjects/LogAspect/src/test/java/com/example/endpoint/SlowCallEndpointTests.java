@@ -0,0 +1,56 @@
+package com.example.endpoint;
+
+import com.example.watchdog.SlowCallWatchdog;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SlowCallEndpointTests {
+
+    @Nested
+    @SpringBootTest(properties = "log-aspect.slow-call.enabled=true")
+    @AutoConfigureMockMvc
+    class NotExposed {
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Test
+        void stackTracesAreNotServedOnTheApplicationApi() throws Exception {
+            mockMvc.perform(get("/actuator/slowcalls")).andExpect(status().isNotFound());
+            mockMvc.perform(get("/SlowCallController/current")).andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @SpringBootTest(properties = {"log-aspect.slow-call.enabled=true", "log-aspect.slow-call.threshold=1ms",
+            "management.endpoints.web.exposure.include=slowcalls"})
+    @AutoConfigureMockMvc
+    class Exposed {
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private SlowCallWatchdog slowCallWatchdog;
+
+        @Test
+        void readsCurrentAndRecentSlowCalls() throws Exception {
+            long id = slowCallWatchdog.begin("slow()");
+            Thread.sleep(20);
+            slowCallWatchdog.end(id, null);
+
+            mockMvc.perform(get("/actuator/slowcalls")).andExpect(status().isOk())
+                    .andExpect(jsonPath("$.current").isArray())
+                    .andExpect(jsonPath("$.recent[0].method").value("slow()"));
+            mockMvc.perform(get("/actuator/slowcalls/recent")).andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].method").value("slow()"));
+            mockMvc.perform(get("/actuator/slowcalls/other")).andExpect(status().isNotFound());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.memoize;
+
+import com.example.annotation.RequestMemoize;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class RequestMemoizeAspectTests {
+
+    public static class SlowLookup {
+        final AtomicInteger invocations = new AtomicInteger();
+
+        @RequestMemoize
+        public String lookup(Integer id) throws InterruptedException {
+            invocations.incrementAndGet();
+            Thread.sleep(100);
+            return "user-" + id;
+        }
+    }
+
+    public static class RecursiveLookup {
+        final AtomicInteger invocations = new AtomicInteger();
+
+        RecursiveLookup self;
+
+        @RequestMemoize
+        public String lookup(Integer id) {
+            // 第一次调用在执行中以相同参数再调用一次自己
+            if (invocations.incrementAndGet() == 1) {
+                return "outer-" + self.lookup(id);
+            }
+            return "user-" + id;
+        }
+    }
+
+    private final SlowLookup target = new SlowLookup();
+
+    private final SlowLookup proxy = proxy(target);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private static SlowLookup proxy(SlowLookup target) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new RequestMemoizeAspect());
+        return proxyFactory.getProxy();
+    }
+
+    @Test
+    void memoizesWithinOneRequest() throws InterruptedException {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertEquals("user-1", proxy.lookup(1));
+        assertEquals("user-1", proxy.lookup(1));
+        assertEquals("user-2", proxy.lookup(2));
+        assertEquals(2, target.invocations.get());
+
+        // 新的请求重新执行
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        proxy.lookup(1);
+        assertEquals(3, target.invocations.get());
+
+        // 不在请求中不缓存
+        RequestContextHolder.resetRequestAttributes();
+        proxy.lookup(1);
+        proxy.lookup(1);
+        assertEquals(5, target.invocations.get());
+    }
+
+    @Test
+    void coalescesConcurrentCallsWithinOneRequest() throws Exception {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()), true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return proxy.lookup(7);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, executor));
+            }
+            for (CompletableFuture<String> future : futures) {
+                assertEquals("user-7", future.get(1, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, target.invocations.get());
+    }
+
+    @Test
+    void reentrantCallWithSameArgumentsRunsDirectly() {
+        // assertTimeoutPreemptively 在另一个线程中执行，需要继承请求属性
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()), true);
+        RecursiveLookup recursiveTarget = new RecursiveLookup();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(recursiveTarget);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new RequestMemoizeAspect());
+        RecursiveLookup recursiveProxy = proxyFactory.getProxy();
+        recursiveTarget.self = recursiveProxy;
+
+        assertEquals("outer-user-1", assertTimeoutPreemptively(Duration.ofSeconds(5), () -> recursiveProxy.lookup(1)));
+        // 外层调用的结果被缓存
+        assertEquals("outer-user-1", recursiveProxy.lookup(1));
+        assertEquals(2, recursiveTarget.invocations.get());
+    }
+}
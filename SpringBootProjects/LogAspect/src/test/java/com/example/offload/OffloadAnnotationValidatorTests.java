@@ -0,0 +1,51 @@
+package com.example.offload;
+
+import com.example.annotation.Offload;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanInitializationException;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OffloadAnnotationValidatorTests {
+
+    static class ValidService {
+        @Offload(maxConcurrency = 10)
+        public CompletableFuture<String> load() {
+            return CompletableFuture.completedFuture("ok");
+        }
+    }
+
+    static class BlockingReturnService {
+        @Offload
+        public String load() {
+            return "ok";
+        }
+    }
+
+    static class InvalidConcurrencyService {
+        @Offload(maxConcurrency = 0)
+        public CompletableFuture<String> load() {
+            return CompletableFuture.completedFuture("ok");
+        }
+    }
+
+    private final OffloadAnnotationValidator validator = new OffloadAnnotationValidator();
+
+    @Test
+    void acceptsCompletableFutureMethods() {
+        ValidService bean = new ValidService();
+
+        assertSame(bean, validator.postProcessAfterInitialization(bean, "validService"));
+    }
+
+    @Test
+    void rejectsInvalidMethodsAtStartup() {
+        assertThrows(BeanInitializationException.class,
+                () -> validator.postProcessAfterInitialization(new BlockingReturnService(), "blockingReturnService"));
+        assertThrows(BeanInitializationException.class,
+                () -> validator.postProcessAfterInitialization(new InvalidConcurrencyService(), "invalidConcurrencyService"));
+    }
+}
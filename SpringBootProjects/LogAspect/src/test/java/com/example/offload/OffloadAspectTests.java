@@ -0,0 +1,39 @@
+package com.example.offload;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OffloadAspectTests {
+
+    static class ReportService {
+        public CompletableFuture<String> export(String name) {
+            return CompletableFuture.completedFuture(name);
+        }
+
+        public CompletableFuture<String> export(String name, int pages) {
+            return CompletableFuture.completedFuture(name);
+        }
+    }
+
+    @Test
+    void overloadsGetTheirOwnGauges() throws NoSuchMethodException {
+        Method single = ReportService.class.getMethod("export", String.class);
+        Method paged = ReportService.class.getMethod("export", String.class, int.class);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Executor executor = Runnable::run;
+
+        new OffloadLane(OffloadAspect.laneName(single), 1, 0, executor, meterRegistry);
+        new OffloadLane(OffloadAspect.laneName(paged), 1, 0, executor, meterRegistry);
+
+        assertEquals("ReportService.export(String)", OffloadAspect.laneName(single));
+        assertEquals("ReportService.export(String,int)", OffloadAspect.laneName(paged));
+        assertEquals(2, meterRegistry.get("log.aspect.offload.active").gauges().size());
+        assertEquals(2, meterRegistry.get("log.aspect.offload.queued").gauges().size());
+    }
+}
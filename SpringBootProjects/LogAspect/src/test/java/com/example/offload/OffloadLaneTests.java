@@ -0,0 +1,100 @@
+package com.example.offload;
+
+import com.example.config.LogAspectProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffloadLaneTests {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void limitsConcurrencyAndQueue() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OffloadLane lane = new OffloadLane("UserService.getUserById", 2, 3, executor, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<CompletableFuture<Object>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            int value = i;
+            futures.add(lane.submit(() -> {
+                release.await();
+                return CompletableFuture.completedFuture(value);
+            }));
+        }
+
+        // 2 个执行、3 个排队，第 6 个被拒绝
+        ExecutionException rejected = assertThrows(ExecutionException.class, () -> futures.get(5).get(1, TimeUnit.SECONDS));
+        assertTrue(rejected.getCause() instanceof RejectedExecutionException);
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> meterRegistry.get("log.aspect.offload.active").gauge().value() == 2);
+        assertEquals(3, meterRegistry.get("log.aspect.offload.queued").gauge().value());
+
+        release.countDown();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, futures.get(i).get(1, TimeUnit.SECONDS));
+        }
+        assertEquals(0, meterRegistry.get("log.aspect.offload.queued").gauge().value());
+        assertEquals(1, meterRegistry.get("log.aspect.offload.rejected").counter().count());
+        assertTrue(meterRegistry.get("log.aspect.offload.wait").timer().count() >= 5);
+    }
+
+    @Test
+    void moreConcurrentCallsThanThreadsWaitForAFreeThread() throws Exception {
+        LogAspectProperties properties = new LogAspectProperties();
+        properties.getOffload().setVirtualThreads(false);
+        properties.getOffload().setMaxThreads(4);
+        OffloadExecutor offloadExecutor = new OffloadExecutor(properties);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // 许可数大于线程数，多出的任务不能被线程池拒绝
+        OffloadLane lane = new OffloadLane("UserService.getUserByIdAsync", 10, 10, offloadExecutor, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        try {
+            List<CompletableFuture<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                int value = i;
+                futures.add(lane.submit(() -> {
+                    running.incrementAndGet();
+                    release.await();
+                    return CompletableFuture.completedFuture(value);
+                }));
+            }
+
+            await().atMost(Duration.ofSeconds(5)).until(() -> running.get() == 4);
+            assertTrue(futures.stream().noneMatch(CompletableFuture::isDone));
+
+            release.countDown();
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i, futures.get(i).get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(10, running.get());
+            assertEquals(0, meterRegistry.get("log.aspect.offload.rejected").counter().count());
+        } finally {
+            offloadExecutor.destroy();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.watchdog;
+
+import com.example.config.LogAspectProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlowCallWatchdogTests {
+
+    private SlowCallWatchdog watchdog;
+
+    @AfterEach
+    void tearDown() {
+        watchdog.destroy();
+    }
+
+    @Test
+    void samplesStackWhileCallIsRunning() {
+        LogAspectProperties properties = new LogAspectProperties();
+        properties.getSlowCall().setThreshold(Duration.ofMillis(50));
+        properties.getSlowCall().setSampleInterval(Duration.ofMillis(20));
+        properties.getSlowCall().setMaxSamplesPerCall(2);
+        watchdog = new SlowCallWatchdog(properties);
+
+        long fast = watchdog.begin("fast()");
+        watchdog.end(fast, null);
+
+        long slow = watchdog.begin("slow()");
+        // 等到超过阈值并抓满两个线程栈，不依赖固定的等待时间
+        List<SlowCallReport> current = await().atMost(Duration.ofSeconds(5))
+                .until(watchdog::current, reports -> reports.size() == 1 && reports.get(0).getSamples().size() == 2);
+        assertFalse(current.get(0).isFinished());
+        watchdog.end(slow, null);
+
+        List<SlowCallReport> recent = watchdog.recent();
+        assertEquals(1, recent.size());
+        SlowCallReport report = recent.get(0);
+        assertEquals("slow()", report.getMethod());
+        assertTrue(report.isFinished());
+        assertEquals(2, report.getSamples().size());
+        assertTrue(report.getSamples().get(0).getFrames().stream().anyMatch(frame -> frame.contains("samplesStackWhileCallIsRunning")));
+        assertTrue(watchdog.current().isEmpty());
+    }
+}
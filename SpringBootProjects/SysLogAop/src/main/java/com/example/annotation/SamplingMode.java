@@ -0,0 +1,23 @@
+package com.example.annotation;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/24
+ * @usage SamplingMode @SysLog 的采样方式
+ */
+public enum SamplingMode {
+    /**
+     * 全部记录
+     */
+    ALL,
+
+    /**
+     * 按固定比例记录，见 SysLog#sampleRatio
+     */
+    RATIO,
+
+    /**
+     * 每个方法一个令牌桶，每秒最多记录 SysLog#permitsPerSecond 条
+     */
+    RATE_LIMIT
+}
@@ -12,4 +12,49 @@ import java.lang.annotation.*;
 @Documented
 public @interface SysLog {
     String value() default "";
+
+    /**
+     * 单个参数最多记录的字符数
+     */
+    int maxArgLength() default 256;
+
+    /**
+     * 全部参数最多记录的字节数（按 UTF-8 计算）
+     */
+    int maxParamsBytes() default 2048;
+
+    /**
+     * 需要记录的参数下标，为空时记录全部参数
+     */
+    int[] includeArgs() default {};
+
+    /**
+     * 不记录的参数下标，优先级高于 includeArgs
+     */
+    int[] excludeArgs() default {};
+
+    /**
+     * 采样方式，慢调用和异常调用不受采样影响
+     */
+    SamplingMode sampling() default SamplingMode.ALL;
+
+    /**
+     * RATIO 模式下的记录比例，取值 0~1
+     */
+    double sampleRatio() default 1.0;
+
+    /**
+     * RATE_LIMIT 模式下每秒最多记录的条数
+     */
+    double permitsPerSecond() default 100;
+
+    /**
+     * 执行时间超过该值（毫秒）时一定记录，小于 0 表示不启用
+     */
+    long slowThresholdMillis() default -1;
+
+    /**
+     * 方法抛出异常时是否一定记录
+     */
+    boolean alwaysRecordErrors() default true;
 }
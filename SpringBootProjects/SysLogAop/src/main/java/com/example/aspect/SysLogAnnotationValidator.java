@@ -0,0 +1,37 @@
+package com.example.aspect;
+
+import com.example.annotation.SysLog;
+import com.example.sampling.SysLogSamplingPolicy;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.BeanInitializationException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/24
+ * @usage SysLogAnnotationValidator 启动时检查所有 Bean 上 @SysLog 的采样参数
+ * 采样器在方法第一次被调用时才创建，参数非法时会在每次调用中抛出异常，这里提前到 Bean 初始化时失败
+ */
+@Component
+public class SysLogAnnotationValidator implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        ReflectionUtils.doWithMethods(targetClass, method -> {
+            SysLog sysLog = AnnotationUtils.findAnnotation(method, SysLog.class);
+            if (sysLog == null) {
+                return;
+            }
+            try {
+                SysLogSamplingPolicy.validate(sysLog);
+            } catch (IllegalArgumentException e) {
+                throw new BeanInitializationException("Bean '" + beanName + "' 的 @SysLog 配置非法：" + method, e);
+            }
+        }, ReflectionUtils.USER_DECLARED_METHODS);
+        return bean;
+    }
+}
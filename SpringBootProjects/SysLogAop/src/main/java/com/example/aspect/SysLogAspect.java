@@ -1,74 +1,101 @@
 package com.example.aspect;
 
-import com.example.annotation.SysLog;
 import com.example.entity.SysLogBO;
 import com.example.service.SysLogService;
+import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.stereotype.Component;
 
 import java.lang.reflect.Method;
-import java.text.SimpleDateFormat;
-import java.util.ArrayList;
-import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author chenzufeng
  * @date 2021/11/2
  * @usage SysLogAspect 系统日志切面
  * 使用@Aspect注解声明一个切面
+ * 默认由 Spring AOP 通过代理织入；使用 ctw profile 构建时由 AspectJ 在编译期织入，
+ * 此时切面实例由 AspectJ 创建，见 SysLogAspectConfig
  */
+@Slf4j
 @Aspect
-@Component
 public class SysLogAspect {
 
     @Autowired
     private SysLogService sysLogService;
 
-    @Pointcut("@annotation(com.example.annotation.SysLog)")
+    @Autowired
+    private SysLogMetadataRegistry sysLogMetadataRegistry;
+
+    /**
+     * 只匹配实例方法的执行：编译期织入时 @annotation 还会匹配方法调用处，需要用 execution 限定，
+     * 排除 static 方法使两种织入方式拦截的方法一致
+     */
+    @Pointcut("execution(!static * *(..)) && @annotation(com.example.annotation.SysLog)")
     public void logPointCut() {}
 
     @Around("logPointCut()")
     public Object around(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
-        long beginTime = System.currentTimeMillis();
-        Object result = proceedingJoinPoint.proceed();
-        long time = System.currentTimeMillis() - beginTime;
-        saveLog(proceedingJoinPoint, time);
-        return  result;
+        // nanoTime 是单调时钟，不受系统时间调整影响
+        long beginTime = System.nanoTime();
+        Throwable failure = null;
+        try {
+            return proceedingJoinPoint.proceed();
+        } catch (Throwable throwable) {
+            failure = throwable;
+            throw throwable;
+        } finally {
+            long nanos = System.nanoTime() - beginTime;
+            saveLog(proceedingJoinPoint, nanos, failure);
+        }
     }
 
-    private void saveLog(ProceedingJoinPoint proceedingJoinPoint, long time) {
-        MethodSignature signature = (MethodSignature) proceedingJoinPoint.getSignature();
-        Method method = signature.getMethod();
+    private void saveLog(ProceedingJoinPoint proceedingJoinPoint, long nanos, Throwable failure) {
+        // 编译期织入时，容器完成注入之前被调用的方法不记录日志
+        if (sysLogService == null || sysLogMetadataRegistry == null) {
+            return;
+        }
+        // 记录日志失败不能影响业务方法的返回值或异常
+        try {
+            MethodSignature signature = (MethodSignature) proceedingJoinPoint.getSignature();
+            Method method = signature.getMethod();
+            SysLogMethodMetadata metadata = sysLogMetadataRegistry.get(method, proceedingJoinPoint.getTarget().getClass());
 
-        SysLogBO sysLogBO = new SysLogBO();
+            // 耗时分布统计全部调用，不受采样影响
+            metadata.getLatencyHistogram().record(nanos);
+            long time = TimeUnit.NANOSECONDS.toMillis(nanos);
 
-        sysLogBO.setExecuteTime(time);
+            // 调用结束后再采样：异常调用和慢调用一定记录
+            if (!metadata.getSamplingPolicy().shouldRecord(time, failure != null)) {
+                return;
+            }
 
-        SimpleDateFormat simpleDateFormat = new SimpleDateFormat("yyyy-MM-dd hh:mm:ss");
-        sysLogBO.setCreateDate(simpleDateFormat.format(new Date()));
+            SysLogBO sysLogBO = new SysLogBO();
 
-        SysLog sysLog = method.getAnnotation(SysLog.class);
-        if (sysLog != null) {
-            sysLogBO.setRemark(sysLog.value());
-        }
+            sysLogBO.setExecuteTime(time);
 
-        String className = proceedingJoinPoint.getTarget().getClass().getName();
-        String methodName = signature.getName();
-        sysLogBO.setClassName(className);
-        sysLogBO.setMethodName(methodName);
+            // 只记录时间戳，格式化推迟到写入时
+            sysLogBO.setCreateTime(System.currentTimeMillis());
 
-        Object[] args = proceedingJoinPoint.getArgs();
-        ArrayList<String> list = new ArrayList<>();
-        for (Object arg : args) {
-            list.add(arg.toString());
-        }
-        sysLogBO.setParams(list.toString());
+            // 注解值、类名、方法名都来自缓存的元数据
+            sysLogBO.setRemark(metadata.getRemark());
+            sysLogBO.setClassName(metadata.getClassName());
+            sysLogBO.setMethodName(metadata.getMethodName());
+
+            if (failure != null) {
+                sysLogBO.setException(failure.getClass().getName() + ": " + failure.getMessage());
+            }
 
-        sysLogService.save(sysLogBO);
+            // getArgs() 返回的是参数数组的副本，这里只保存需要记录的参数引用，格式化在后台写入线程中进行
+            sysLogBO.captureArgs(proceedingJoinPoint.getArgs(), metadata.getArgCapture());
+
+            sysLogService.save(sysLogBO);
+        } catch (RuntimeException e) {
+            log.error("保存系统日志失败", e);
+        }
     }
 }
@@ -0,0 +1,109 @@
+package com.example.aspect;
+
+import com.example.annotation.SysLog;
+import com.example.capture.SysLogArgCapture;
+import com.example.capture.SysLogArgRendererRegistry;
+import com.example.latency.SysLogLatencyRegistry;
+import com.example.sampling.SysLogSamplingPolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/21
+ * @usage SysLogMetadataRegistry 按 目标类 -> Method 两级缓存 SysLogMethodMetadata
+ * 第一次调用时解析注解、类名、方法名和参数名，之后只有两次 Map 查找，不创建键对象，也不再产生反射调用和字符串拼接。
+ * 继承来的方法或接口方法在不同子类上的注解、类名和指标名不同，因此先按目标类区分，再按 Method 查找
+ */
+@Component
+public class SysLogMetadataRegistry {
+
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    /**
+     * 目标类 -> (Method -> 元数据)
+     */
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Method, SysLogMethodMetadata>> metadataCache =
+            new ConcurrentHashMap<>();
+
+    private final SysLogArgRendererRegistry argRendererRegistry;
+
+    private final MeterRegistry meterRegistry;
+
+    private final SysLogLatencyRegistry latencyRegistry;
+
+    public SysLogMetadataRegistry(SysLogArgRendererRegistry argRendererRegistry, MeterRegistry meterRegistry,
+                                  SysLogLatencyRegistry latencyRegistry) {
+        this.argRendererRegistry = argRendererRegistry;
+        this.meterRegistry = meterRegistry;
+        this.latencyRegistry = latencyRegistry;
+    }
+
+    /**
+     * 获取方法元数据
+     * @param method 被拦截的方法
+     * @param targetClass 被代理对象的类型
+     * @return 方法元数据
+     */
+    public SysLogMethodMetadata get(Method method, Class<?> targetClass) {
+        // 先 get 再 computeIfAbsent：命中时不创建 lambda，也不进入 computeIfAbsent 的加锁路径
+        ConcurrentMap<Method, SysLogMethodMetadata> methods = metadataCache.get(targetClass);
+        if (methods == null) {
+            methods = metadataCache.computeIfAbsent(targetClass, key -> new ConcurrentHashMap<>());
+        }
+        SysLogMethodMetadata metadata = methods.get(method);
+        if (metadata == null) {
+            metadata = methods.computeIfAbsent(method, key -> resolve(method, targetClass));
+        }
+        return metadata;
+    }
+
+    private SysLogMethodMetadata resolve(Method method, Class<?> targetClass) {
+        // JDK 动态代理拿到的是接口方法，注解可能只在实现类的方法上
+        SysLog sysLog = AnnotationUtils.findAnnotation(ClassUtils.getMostSpecificMethod(method, targetClass), SysLog.class);
+        if (sysLog == null) {
+            throw new IllegalStateException("@SysLog not found on " + method);
+        }
+
+        String[] parameterNames = parameterNameDiscoverer.getParameterNames(method);
+        if (parameterNames == null) {
+            parameterNames = new String[method.getParameterCount()];
+            for (int i = 0; i < parameterNames.length; i++) {
+                parameterNames[i] = "arg" + i;
+            }
+        }
+        SysLogArgCapture argCapture = new SysLogArgCapture(parameterNames, sysLog.includeArgs(), sysLog.excludeArgs(),
+                sysLog.maxArgLength(), sysLog.maxParamsBytes(), argRendererRegistry);
+        String methodKey = methodKey(method, targetClass);
+        SysLogSamplingPolicy samplingPolicy = new SysLogSamplingPolicy(sysLog, methodKey, meterRegistry);
+        // value 为空时按方法单独统计
+        String latencyName = sysLog.value().isEmpty() ? methodKey : sysLog.value();
+        return new SysLogMethodMetadata(sysLog.value(), targetClass.getName(), method.getName(), parameterNames,
+                argCapture, samplingPolicy, latencyRegistry.histogram(latencyName));
+    }
+
+    /**
+     * 指标使用的方法名，类使用全限定名，不同包中的同名类互不覆盖；包含参数类型，重载方法的指标互不覆盖
+     * @return 例如 com.example.controller.SysLogAopController#test(String,int)
+     */
+    static String methodKey(Method method, Class<?> targetClass) {
+        StringBuilder methodKey = new StringBuilder(targetClass.getName())
+                .append('#').append(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                methodKey.append(',');
+            }
+            methodKey.append(parameterTypes[i].getSimpleName());
+        }
+        return methodKey.append(')').toString();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.aspect;
+
+import com.example.capture.SysLogArgCapture;
+import com.example.latency.RollingLatencyHistogram;
+import com.example.sampling.SysLogSamplingPolicy;
+import lombok.Getter;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/21
+ * @usage SysLogMethodMetadata 被 @SysLog 修饰方法的元数据，每个方法只解析一次
+ */
+@Getter
+public class SysLogMethodMetadata {
+
+    /**
+     * @SysLog 注解的 value
+     */
+    private final String remark;
+
+    private final String className;
+
+    private final String methodName;
+
+    private final String[] parameterNames;
+
+    /**
+     * 参数记录规则
+     */
+    private final SysLogArgCapture argCapture;
+
+    /**
+     * 采样规则
+     */
+    private final SysLogSamplingPolicy samplingPolicy;
+
+    /**
+     * 按 @SysLog value 汇总的耗时直方图
+     */
+    private final RollingLatencyHistogram latencyHistogram;
+
+    public SysLogMethodMetadata(String remark, String className, String methodName, String[] parameterNames,
+                                SysLogArgCapture argCapture, SysLogSamplingPolicy samplingPolicy,
+                                RollingLatencyHistogram latencyHistogram) {
+        this.remark = remark;
+        this.className = className;
+        this.methodName = methodName;
+        this.parameterNames = parameterNames;
+        this.argCapture = argCapture;
+        this.samplingPolicy = samplingPolicy;
+        this.latencyHistogram = latencyHistogram;
+    }
+}
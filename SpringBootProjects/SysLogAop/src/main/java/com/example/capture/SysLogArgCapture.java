@@ -0,0 +1,83 @@
+package com.example.capture;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/23
+ * @usage SysLogArgCapture 由 @SysLog 预先解析出的参数记录规则，每个方法一份
+ * 请求线程只调用 snapshot 保存参数引用，真正的格式化在后台写入线程中调用 render 完成
+ */
+public class SysLogArgCapture {
+
+    private final String[] parameterNames;
+
+    private final boolean[] captured;
+
+    private final int maxArgLength;
+
+    private final int maxParamsBytes;
+
+    private final SysLogArgRendererRegistry rendererRegistry;
+
+    public SysLogArgCapture(String[] parameterNames, int[] includeArgs, int[] excludeArgs,
+                            int maxArgLength, int maxParamsBytes, SysLogArgRendererRegistry rendererRegistry) {
+        this.parameterNames = parameterNames;
+        this.captured = new boolean[parameterNames.length];
+        for (int i = 0; i < captured.length; i++) {
+            captured[i] = includeArgs.length == 0;
+        }
+        for (int index : includeArgs) {
+            if (index >= 0 && index < captured.length) {
+                captured[index] = true;
+            }
+        }
+        for (int index : excludeArgs) {
+            if (index >= 0 && index < captured.length) {
+                captured[index] = false;
+            }
+        }
+        this.maxArgLength = maxArgLength;
+        this.maxParamsBytes = maxParamsBytes;
+        this.rendererRegistry = rendererRegistry;
+    }
+
+    /**
+     * 请求线程中调用，不记录的参数置为 null，排队期间不再持有这些对象
+     * @param args 参数数组的副本，会被直接修改
+     * @return args
+     */
+    public Object[] snapshot(Object[] args) {
+        for (int i = 0; i < args.length && i < captured.length; i++) {
+            if (!captured[i]) {
+                args[i] = null;
+            }
+        }
+        return args;
+    }
+
+    /**
+     * 把参数格式化为 [name=value, ...]
+     * @param args 参数快照
+     * @return 格式化结果
+     */
+    public String render(Object[] args) {
+        SysLogParamsWriter writer = new SysLogParamsWriter(maxParamsBytes);
+        writer.appendRaw("[");
+        boolean first = true;
+        for (int i = 0; i < args.length && !writer.isFull(); i++) {
+            if (i < captured.length && !captured[i]) {
+                continue;
+            }
+            if (!first) {
+                writer.appendRaw(", ");
+            }
+            first = false;
+            writer.appendRaw(i < parameterNames.length ? parameterNames[i] : "arg" + i);
+            writer.appendRaw("=");
+            writer.beginArg(maxArgLength);
+            rendererRegistry.render(args[i], writer);
+            writer.endArg();
+        }
+        writer.appendRaw("]");
+        return writer.toString();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.capture;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/23
+ * @usage SysLogArgRenderer 按参数类型定制输出内容
+ * 实现类注册为 Spring Bean 后会被 SysLogArgRendererRegistry 自动发现，并优先于内置规则
+ */
+public interface SysLogArgRenderer {
+
+    /**
+     * @param type 参数的运行时类型
+     * @return 是否由该 renderer 处理
+     */
+    boolean supports(Class<?> type);
+
+    /**
+     * 输出参数，在后台写入线程中调用；输出较长内容时应检查 writer.isLimitReached()，达到限制后停止
+     * @param arg 参数，非null
+     * @param writer 输出器
+     */
+    void render(Object arg, SysLogParamsWriter writer);
+}
@@ -0,0 +1,209 @@
+package com.example.capture;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.ObjectUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/23
+ * @usage SysLogArgRendererRegistry 参数类型到 SysLogArgRenderer 的注册表
+ * 内置规则：跳过 Servlet 请求/响应、会话和流；byte[] 只记录长度和 CRC32；上传文件只记录文件名和大小；
+ * 字符串、集合、Map 和对象数组逐个元素输出，达到长度限制后停止，不会先生成完整字符串；其余类型使用 toString。
+ * 每个运行时类型只匹配一次，结果缓存在 Map 中
+ */
+@Component
+public class SysLogArgRendererRegistry {
+
+    private final SysLogArgRenderer defaultRenderer = new DefaultRenderer();
+
+    private final List<SysLogArgRenderer> renderers = new ArrayList<>();
+
+    private final ConcurrentMap<Class<?>, SysLogArgRenderer> rendererCache = new ConcurrentHashMap<>();
+
+    public SysLogArgRendererRegistry(List<SysLogArgRenderer> customRenderers) {
+        renderers.addAll(customRenderers);
+        renderers.add(skip(ServletRequest.class, ServletResponse.class, HttpSession.class,
+                InputStream.class, OutputStream.class, Reader.class, Writer.class));
+        renderers.add(new ByteArrayRenderer());
+        renderers.add(new MultipartFileRenderer());
+    }
+
+    /**
+     * 输出一个参数
+     * @param arg 参数
+     * @param writer 输出器
+     */
+    public void render(Object arg, SysLogParamsWriter writer) {
+        if (arg == null) {
+            writer.append("null");
+            return;
+        }
+        try {
+            rendererFor(arg.getClass()).render(arg, writer);
+        } catch (RuntimeException e) {
+            writer.append("<").append(arg.getClass().getSimpleName()).append(" render failed: ")
+                    .append(e.getClass().getSimpleName()).append(">");
+        }
+    }
+
+    private SysLogArgRenderer rendererFor(Class<?> type) {
+        SysLogArgRenderer renderer = rendererCache.get(type);
+        if (renderer == null) {
+            renderer = rendererCache.computeIfAbsent(type, this::resolve);
+        }
+        return renderer;
+    }
+
+    private SysLogArgRenderer resolve(Class<?> type) {
+        for (SysLogArgRenderer renderer : renderers) {
+            if (renderer.supports(type)) {
+                return renderer;
+            }
+        }
+        return defaultRenderer;
+    }
+
+    private static SysLogArgRenderer skip(Class<?>... skippedTypes) {
+        return new SysLogArgRenderer() {
+            @Override
+            public boolean supports(Class<?> type) {
+                for (Class<?> skippedType : skippedTypes) {
+                    if (skippedType.isAssignableFrom(type)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public void render(Object arg, SysLogParamsWriter writer) {
+                writer.append("<").append(arg.getClass().getSimpleName()).append(">");
+            }
+        };
+    }
+
+    /**
+     * 与 toString 的输出格式一致：集合为 [a, b]，Map 为 {k=v}，对象数组为 {a, b}
+     */
+    private class DefaultRenderer implements SysLogArgRenderer {
+        @Override
+        public boolean supports(Class<?> type) {
+            return true;
+        }
+
+        @Override
+        public void render(Object arg, SysLogParamsWriter writer) {
+            if (arg instanceof CharSequence) {
+                writer.append((CharSequence) arg);
+            } else if (arg instanceof Collection) {
+                renderElements(arg, ((Collection<?>) arg).iterator(), "[", "]", writer);
+            } else if (arg instanceof Map) {
+                writer.append("{");
+                Iterator<? extends Map.Entry<?, ?>> entries = ((Map<?, ?>) arg).entrySet().iterator();
+                while (entries.hasNext() && !writer.isLimitReached()) {
+                    Map.Entry<?, ?> entry = entries.next();
+                    renderElement(arg, entry.getKey(), writer);
+                    writer.append("=");
+                    renderElement(arg, entry.getValue(), writer);
+                    if (entries.hasNext()) {
+                        writer.append(", ");
+                    }
+                }
+                writer.append("}");
+            } else if (arg instanceof Object[]) {
+                renderElements(arg, new ArrayIterator((Object[]) arg), "{", "}", writer);
+            } else {
+                writer.append(ObjectUtils.nullSafeToString(arg));
+            }
+        }
+
+        private void renderElements(Object container, Iterator<?> elements, String open, String close,
+                                    SysLogParamsWriter writer) {
+            writer.append(open);
+            while (elements.hasNext() && !writer.isLimitReached()) {
+                renderElement(container, elements.next(), writer);
+                if (elements.hasNext()) {
+                    writer.append(", ");
+                }
+            }
+            writer.append(close);
+        }
+
+        private void renderElement(Object container, Object element, SysLogParamsWriter writer) {
+            if (element == container) {
+                // 与 AbstractCollection.toString 一样，避免包含自身时无限递归
+                writer.append("(this ").append(container.getClass().getSimpleName()).append(")");
+            } else {
+                SysLogArgRendererRegistry.this.render(element, writer);
+            }
+        }
+    }
+
+    private static class ArrayIterator implements Iterator<Object> {
+
+        private final Object[] array;
+
+        private int index;
+
+        ArrayIterator(Object[] array) {
+            this.array = array;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < array.length;
+        }
+
+        @Override
+        public Object next() {
+            return array[index++];
+        }
+    }
+
+    private static class ByteArrayRenderer implements SysLogArgRenderer {
+        @Override
+        public boolean supports(Class<?> type) {
+            return type == byte[].class;
+        }
+
+        @Override
+        public void render(Object arg, SysLogParamsWriter writer) {
+            byte[] bytes = (byte[]) arg;
+            CRC32 crc32 = new CRC32();
+            crc32.update(bytes, 0, bytes.length);
+            writer.append("byte[").append(Integer.toString(bytes.length))
+                    .append("]crc32=").append(Long.toHexString(crc32.getValue()));
+        }
+    }
+
+    private static class MultipartFileRenderer implements SysLogArgRenderer {
+        @Override
+        public boolean supports(Class<?> type) {
+            return MultipartFile.class.isAssignableFrom(type);
+        }
+
+        @Override
+        public void render(Object arg, SysLogParamsWriter writer) {
+            MultipartFile file = (MultipartFile) arg;
+            writer.append("MultipartFile(").append(file.getOriginalFilename())
+                    .append(", ").append(Long.toString(file.getSize())).append(" bytes)");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.capture;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/23
+ * @usage SysLogParamsWriter 带长度限制的参数输出器
+ * 同时限制单个参数的字符数和全部参数的 UTF-8 字节数，超出部分直接丢弃，不会生成完整字符串后再截断
+ */
+public final class SysLogParamsWriter {
+
+    private static final String TRUNCATED = "...";
+
+    private final StringBuilder builder;
+
+    private final int maxBytes;
+
+    private int bytes;
+
+    private boolean full;
+
+    private int maxArgLength = Integer.MAX_VALUE;
+
+    private int argLength;
+
+    private boolean argTruncated;
+
+    public SysLogParamsWriter(int maxBytes) {
+        this.maxBytes = maxBytes;
+        this.builder = new StringBuilder(Math.min(maxBytes, 256));
+    }
+
+    /**
+     * 开始输出一个新参数
+     * @param maxArgLength 该参数最多输出的字符数
+     */
+    void beginArg(int maxArgLength) {
+        this.maxArgLength = maxArgLength;
+        this.argLength = 0;
+        this.argTruncated = false;
+    }
+
+    /**
+     * 结束当前参数，被截断时追加省略号
+     */
+    void endArg() {
+        if (argTruncated) {
+            appendRaw(TRUNCATED);
+        }
+        this.maxArgLength = Integer.MAX_VALUE;
+    }
+
+    /**
+     * 输出参数内容，受单个参数长度和总字节数限制
+     * @param text 内容
+     * @return this
+     */
+    public SysLogParamsWriter append(CharSequence text) {
+        CharSequence value = text == null ? "null" : text;
+        for (int i = 0, length = value.length(); i < length && !full; i++) {
+            if (argLength >= maxArgLength) {
+                argTruncated = true;
+                break;
+            }
+            if (appendChar(value.charAt(i))) {
+                argLength++;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 输出分隔符等结构性内容，只受总字节数限制
+     */
+    void appendRaw(String text) {
+        for (int i = 0, length = text.length(); i < length && !full; i++) {
+            appendChar(text.charAt(i));
+        }
+    }
+
+    private boolean appendChar(char c) {
+        int cost = c < 0x80 ? 1 : c < 0x800 || Character.isSurrogate(c) ? 2 : 3;
+        if (bytes + cost > maxBytes) {
+            full = true;
+            return false;
+        }
+        bytes += cost;
+        builder.append(c);
+        return true;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * @return 当前参数或全部参数已达到长度限制，renderer 应停止输出
+     */
+    public boolean isLimitReached() {
+        return full || argLength >= maxArgLength;
+    }
+
+    @Override
+    public String toString() {
+        return full ? builder.toString() + TRUNCATED : builder.toString();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.config;
+
+import com.example.aspect.SysLogAspect;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.Aspects;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ClassUtils;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/21
+ * @usage SysLogAspectConfig 注册 SysLogAspect
+ * 编译期织入（mvn -Pctw）后 SysLogAspect 带有 aspectOf 方法，Spring 不再为它创建代理，
+ * 通知由织入到业务类中的代码直接调用 AspectJ 持有的单例，这里把该单例注册为 Bean 以完成依赖注入；
+ * 未织入时与普通的 @Aspect Bean 相同，由 Spring AOP 创建代理
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+public class SysLogAspectConfig {
+
+    @Bean
+    public SysLogAspect sysLogAspect() {
+        if (isCompileTimeWoven()) {
+            log.info("SysLogAspect 使用 AspectJ 编译期织入");
+            return Aspects.aspectOf(SysLogAspect.class);
+        }
+        log.info("SysLogAspect 使用 Spring AOP 代理织入");
+        return new SysLogAspect();
+    }
+
+    /**
+     * ajc 会为单例切面生成静态方法 aspectOf
+     * @return SysLogAspect 是否已在编译期织入
+     */
+    public static boolean isCompileTimeWoven() {
+        return ClassUtils.hasMethod(SysLogAspect.class, "aspectOf");
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.config;
+
+import com.example.pipeline.OverflowPolicy;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/20
+ * @usage SysLogProperties 系统日志配置，前缀为 syslog
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "syslog")
+public class SysLogProperties {
+
+    private Pipeline pipeline = new Pipeline();
+
+    private Sink sink = new Sink();
+
+    private Latency latency = new Latency();
+
+    @Data
+    public static class Pipeline {
+        /**
+         * 队列容量，会向上取整为 2 的幂
+         */
+        private int capacity = 8192;
+
+        /**
+         * 每批写入的最大条数
+         */
+        private int batchSize = 256;
+
+        /**
+         * 未攒满一批时的最长等待时间
+         */
+        private Duration flushInterval = Duration.ofMillis(200);
+
+        /**
+         * 后台写入线程数
+         */
+        private int writerThreads = 1;
+
+        /**
+         * 队列写满时的处理策略
+         */
+        private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+        /**
+         * SAMPLE 策略下，队列长度超过该比例后开始采样
+         */
+        private double sampleHighWatermark = 0.75;
+
+        /**
+         * SAMPLE 策略下，每 sampleRate 条保留 1 条
+         */
+        private int sampleRate = 10;
+    }
+
+    @Data
+    public static class Sink {
+        private Slf4jSink slf4j = new Slf4jSink();
+
+        private MappedFileSink mappedFile = new MappedFileSink();
+
+        private JdbcSink jdbc = new JdbcSink();
+    }
+
+    @Data
+    public static class Slf4jSink {
+        /**
+         * 是否通过日志框架输出系统日志
+         */
+        private boolean enabled = true;
+    }
+
+    @Data
+    public static class MappedFileSink {
+        /**
+         * 是否写入内存映射文件
+         */
+        private boolean enabled = false;
+
+        /**
+         * 文件目录
+         */
+        private String directory = "syslog";
+
+        /**
+         * 单个分段文件的大小，写满后切换到新文件
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /**
+         * 每批写完后是否调用 force 刷盘；为 false 时只依赖操作系统回写，不产生额外的系统调用，关闭时总会刷盘一次
+         */
+        private boolean forceOnWrite = false;
+    }
+
+    @Data
+    public static class JdbcSink {
+        /**
+         * 是否写入数据库表 sys_log
+         */
+        private boolean enabled = false;
+
+        /**
+         * 启动时是否执行 syslog-schema.sql 建表
+         */
+        private boolean initializeSchema = true;
+
+        /**
+         * 每次 executeBatch 的行数
+         */
+        private int batchSize = 500;
+
+        /**
+         * 未攒满一批时最长等待时间，超过后即使不满一批也写入
+         */
+        private Duration linger = Duration.ofMillis(500);
+
+        /**
+         * 写入失败后的最大重试次数
+         */
+        private int maxRetries = 3;
+
+        /**
+         * 第一次重试前的等待时间，之后每次翻倍
+         */
+        private Duration retryBackoff = Duration.ofMillis(100);
+
+        /**
+         * 重试等待时间的上限
+         */
+        private Duration maxRetryBackoff = Duration.ofSeconds(2);
+    }
+
+    @Data
+    public static class Latency {
+        /**
+         * 每个时间分片的长度
+         */
+        private Duration slotDuration = Duration.ofSeconds(10);
+
+        /**
+         * 保留的分片个数，slotDuration * slots 为可查询的最长窗口
+         */
+        private int slots = 30;
+    }
+}
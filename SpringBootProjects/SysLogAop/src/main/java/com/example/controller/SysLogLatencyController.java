@@ -0,0 +1,35 @@
+package com.example.controller;
+
+import com.example.latency.LatencySnapshot;
+import com.example.latency.SysLogLatencyRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/27
+ * @usage SysLogLatencyController 查询 @SysLog 方法的耗时分布
+ */
+@RestController
+@RequestMapping("/syslog")
+public class SysLogLatencyController {
+
+    @Autowired
+    private SysLogLatencyRegistry sysLogLatencyRegistry;
+
+    /**
+     * 每个 @SysLog value 在最近一段时间内的调用次数和 p50/p90/p99/p999/max（毫秒）
+     * @param windowSeconds 窗口长度（秒），最长为 syslog.latency.slot-duration * syslog.latency.slots
+     * @return @SysLog value -> 统计结果
+     */
+    @GetMapping("/latency")
+    public Map<String, LatencySnapshot> latency(@RequestParam(defaultValue = "60") long windowSeconds) {
+        return sysLogLatencyRegistry.snapshot(TimeUnit.SECONDS.toMillis(windowSeconds));
+    }
+}
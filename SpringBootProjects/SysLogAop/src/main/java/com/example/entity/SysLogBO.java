@@ -1,6 +1,13 @@
 package com.example.entity;
 
+import com.example.capture.SysLogArgCapture;
+import com.example.utils.SysLogTimeFormatter;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 /**
  * @author chenzufeng
@@ -20,5 +27,59 @@ public class SysLogBO {
 
     private String remark;
 
-    private String createDate;
+    /**
+     * 方法抛出的异常（类名: 信息），正常返回时为null
+     */
+    private String exception;
+
+    /**
+     * 创建时间（毫秒时间戳），由切面直接记录，落地时再决定如何编码
+     */
+    private long createTime;
+
+    /**
+     * 请求线程保存的参数快照，格式化后置空
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Object[] args;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private SysLogArgCapture argCapture;
+
+    /**
+     * 保存参数快照，推迟到写入时再格式化
+     * 快照只保留需要记录的参数引用；调用方在方法返回后修改参数对象时，日志记录的是写入时的值
+     * @param args 参数数组
+     * @param argCapture 参数记录规则
+     */
+    public void captureArgs(Object[] args, SysLogArgCapture argCapture) {
+        this.args = argCapture.snapshot(args);
+        this.argCapture = argCapture;
+        this.params = null;
+    }
+
+    /**
+     * @return 格式化后的参数，第一次调用时（后台写入线程中）才真正格式化
+     */
+    public String getParams() {
+        if (params == null && args != null) {
+            params = argCapture.render(args);
+            args = null;
+            argCapture = null;
+        }
+        return params;
+    }
+
+    /**
+     * @return 格式化后的创建时间 yyyy-MM-dd HH:mm:ss.SSS，只在序列化时计算
+     */
+    public String getCreateDate() {
+        return SysLogTimeFormatter.format(createTime);
+    }
 }
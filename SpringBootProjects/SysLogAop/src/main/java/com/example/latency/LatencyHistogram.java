@@ -0,0 +1,65 @@
+package com.example.latency;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/27
+ * @usage LatencyHistogram 对数分桶的耗时直方图（单位微秒），写入只有一次无锁的原子自增
+ * 16 微秒以内每微秒一个桶；之后每个 2 的幂区间再均分为 16 个桶，相对误差不超过 1/16，
+ * 与 HdrHistogram 保留 1 位多有效数字的精度相当，最大可记录约 71 分钟
+ */
+class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int MAX_EXPONENT = 31;
+
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    void record(long micros) {
+        counts.getAndIncrement(bucketIndex(micros));
+    }
+
+    void clear() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.lazySet(i, 0);
+        }
+    }
+
+    /**
+     * 把本直方图的计数累加到 target
+     */
+    void addTo(long[] target) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            target[i] += counts.get(i);
+        }
+    }
+
+    static int bucketIndex(long micros) {
+        long value = Math.max(0, Math.min(micros, (1L << (MAX_EXPONENT + 1)) - 1));
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    /**
+     * @return 桶的上界（微秒），用作该桶的代表值
+     */
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKET_COUNT;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((long) (SUB_BUCKET_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.latency;
+
+import lombok.Getter;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/27
+ * @usage LatencySnapshot 一个窗口内的耗时统计，耗时单位为毫秒
+ */
+@Getter
+public class LatencySnapshot {
+
+    private final long windowMillis;
+
+    private final long count;
+
+    private final double p50;
+
+    private final double p90;
+
+    private final double p99;
+
+    private final double p999;
+
+    private final double max;
+
+    private LatencySnapshot(long windowMillis, long count, double p50, double p90, double p99, double p999, double max) {
+        this.windowMillis = windowMillis;
+        this.count = count;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    static LatencySnapshot of(long[] counts, long maxMicros, long windowMillis) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return new LatencySnapshot(windowMillis, total,
+                percentile(counts, total, 0.5, maxMicros),
+                percentile(counts, total, 0.9, maxMicros),
+                percentile(counts, total, 0.99, maxMicros),
+                percentile(counts, total, 0.999, maxMicros),
+                maxMicros / 1000.0);
+    }
+
+    private static double percentile(long[] counts, long total, double percentile, long maxMicros) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // 桶上界可能大于实际最大值，取两者较小者
+                return Math.min(LatencyHistogram.bucketUpperBound(i), maxMicros) / 1000.0;
+            }
+        }
+        return maxMicros / 1000.0;
+    }
+}
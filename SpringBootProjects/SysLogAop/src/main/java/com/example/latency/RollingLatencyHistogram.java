@@ -0,0 +1,85 @@
+package com.example.latency;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/27
+ * @usage RollingLatencyHistogram 按时间分片滚动的耗时直方图
+ * 环形数组中每个分片覆盖 slotMillis 毫秒，写入时只定位当前分片并做一次原子自增；
+ * 查询时把落在窗口内的分片合并后计算分位数，因此同一份数据可以回答不同长度的窗口。
+ * 分片复用时由 CAS 抢到的线程清零，与之并发的极少量写入可能丢失，对分位数统计没有影响
+ */
+public class RollingLatencyHistogram {
+
+    private final long slotMillis;
+
+    private final Slot[] slots;
+
+    public RollingLatencyHistogram(long slotMillis, int slotCount) {
+        this.slotMillis = slotMillis;
+        this.slots = new Slot[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    private static final class Slot {
+        private final AtomicLong epoch = new AtomicLong(-1);
+        private final AtomicLong max = new AtomicLong();
+        private final LatencyHistogram histogram = new LatencyHistogram();
+    }
+
+    /**
+     * 记录一次耗时
+     * @param nanos 耗时（纳秒）
+     */
+    public void record(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        Slot slot = currentSlot(System.currentTimeMillis() / slotMillis);
+        slot.histogram.record(micros);
+        long max = slot.max.get();
+        while (micros > max && !slot.max.compareAndSet(max, micros)) {
+            max = slot.max.get();
+        }
+    }
+
+    private Slot currentSlot(long epoch) {
+        Slot slot = slots[(int) (epoch % slots.length)];
+        long slotEpoch = slot.epoch.get();
+        if (slotEpoch < epoch && slot.epoch.compareAndSet(slotEpoch, epoch)) {
+            slot.histogram.clear();
+            slot.max.set(0);
+        }
+        return slot;
+    }
+
+    /**
+     * 统计最近一段时间的耗时分布
+     * @param windowMillis 窗口长度（毫秒），超过分片总时长时按分片总时长计算
+     * @return 统计结果
+     */
+    public LatencySnapshot snapshot(long windowMillis) {
+        long currentEpoch = System.currentTimeMillis() / slotMillis;
+        long windowSlots = Math.max(1, Math.min(slots.length, (windowMillis + slotMillis - 1) / slotMillis));
+
+        long[] counts = new long[LatencyHistogram.BUCKET_COUNT];
+        long max = 0;
+        for (Slot slot : slots) {
+            long epoch = slot.epoch.get();
+            if (epoch > currentEpoch - windowSlots && epoch <= currentEpoch) {
+                slot.histogram.addTo(counts);
+                max = Math.max(max, slot.max.get());
+            }
+        }
+        return LatencySnapshot.of(counts, max, windowSlots * slotMillis);
+    }
+
+    /**
+     * @return 可查询的最长窗口（毫秒）
+     */
+    public long maxWindowMillis() {
+        return slotMillis * slots.length;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.latency;
+
+import com.example.config.SysLogProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/27
+ * @usage SysLogLatencyRegistry 按 @SysLog 的 value 汇总的耗时直方图
+ * 直方图在方法元数据创建时获取并缓存，请求线程记录耗时时不再查找
+ */
+@Component
+public class SysLogLatencyRegistry {
+
+    private final long slotMillis;
+
+    private final int slots;
+
+    private final ConcurrentMap<String, RollingLatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public SysLogLatencyRegistry(SysLogProperties properties) {
+        this.slotMillis = properties.getLatency().getSlotDuration().toMillis();
+        this.slots = properties.getLatency().getSlots();
+    }
+
+    /**
+     * @param name @SysLog 的 value
+     * @return 该 value 对应的直方图，相同 value 的方法共用一个
+     */
+    public RollingLatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new RollingLatencyHistogram(slotMillis, slots));
+    }
+
+    /**
+     * @param windowMillis 窗口长度（毫秒）
+     * @return 每个 @SysLog value 在窗口内的统计结果
+     */
+    public Map<String, LatencySnapshot> snapshot(long windowMillis) {
+        Map<String, LatencySnapshot> snapshots = new TreeMap<>();
+        histograms.forEach((name, histogram) -> snapshots.put(name, histogram.snapshot(windowMillis)));
+        return snapshots;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.pipeline;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/20
+ * @usage OverflowPolicy 队列写满时的处理策略
+ */
+public enum OverflowPolicy {
+    /**
+     * 请求线程等待，直到后台写入线程腾出空间
+     */
+    BLOCK,
+
+    /**
+     * 丢弃队列中最旧的一条日志，为新日志腾出空间
+     */
+    DROP_OLDEST,
+
+    /**
+     * 队列超过高水位后按比例采样，每 sampleRate 条只保留 1 条，队列写满时直接丢弃
+     */
+    SAMPLE
+}
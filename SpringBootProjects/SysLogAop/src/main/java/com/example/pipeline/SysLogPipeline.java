@@ -0,0 +1,236 @@
+package com.example.pipeline;
+
+import com.example.config.SysLogProperties;
+import com.example.entity.SysLogBO;
+import com.example.sink.SysLogSink;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/20
+ * @usage SysLogPipeline 系统日志异步批量写入管道
+ * 请求线程只把 SysLogBO 放入无锁环形队列，后台写入线程按批次取出后交给 SysLogSink
+ */
+@Slf4j
+@Component
+public class SysLogPipeline implements SmartLifecycle {
+
+    /**
+     * BLOCK 策略下请求线程每次等待的时长
+     */
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * 队列为空时写入线程的最长休眠时长
+     */
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final SysLogProperties.Pipeline config;
+
+    private final List<SysLogSink> sinks;
+
+    private final SysLogRingBuffer<SysLogBO> ringBuffer;
+
+    private final int sampleHighWatermark;
+
+    private final AtomicLong sampleSequence = new AtomicLong();
+
+    private final Counter publishedCounter;
+
+    private final Counter droppedCounter;
+
+    private final Timer flushTimer;
+
+    private final List<Thread> writers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public SysLogPipeline(SysLogProperties properties, ObjectProvider<SysLogSink> sinks, MeterRegistry meterRegistry) {
+        this.config = properties.getPipeline();
+        this.sinks = sinks.orderedStream().collect(Collectors.toList());
+        this.ringBuffer = new SysLogRingBuffer<>(config.getCapacity());
+        this.sampleHighWatermark = (int) (ringBuffer.capacity() * config.getSampleHighWatermark());
+
+        Gauge.builder("syslog.pipeline.queue.depth", ringBuffer, SysLogRingBuffer::size)
+                .description("待写入的系统日志条数")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("syslog.pipeline.published")
+                .description("进入队列的系统日志条数")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("syslog.pipeline.dropped")
+                .description("因队列写满被丢弃的系统日志条数")
+                .tag("policy", config.getOverflowPolicy().name())
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("syslog.pipeline.flush")
+                .description("每批系统日志的写入耗时")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * 在请求线程中调用，只做一次入队操作
+     * @param sysLogBO 系统日志
+     * @return 是否进入队列
+     */
+    public boolean publish(SysLogBO sysLogBO) {
+        boolean accepted;
+        switch (config.getOverflowPolicy()) {
+            case DROP_OLDEST:
+                accepted = offerDroppingOldest(sysLogBO);
+                break;
+            case SAMPLE:
+                accepted = offerSampled(sysLogBO);
+                break;
+            case BLOCK:
+            default:
+                accepted = offerBlocking(sysLogBO);
+                break;
+        }
+        if (accepted) {
+            publishedCounter.increment();
+        } else {
+            droppedCounter.increment();
+        }
+        return accepted;
+    }
+
+    private boolean offerBlocking(SysLogBO sysLogBO) {
+        while (!ringBuffer.offer(sysLogBO)) {
+            if (!running) {
+                return false;
+            }
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+        return true;
+    }
+
+    private boolean offerDroppingOldest(SysLogBO sysLogBO) {
+        while (!ringBuffer.offer(sysLogBO)) {
+            if (ringBuffer.poll() != null) {
+                droppedCounter.increment();
+            }
+        }
+        return true;
+    }
+
+    private boolean offerSampled(SysLogBO sysLogBO) {
+        if (ringBuffer.size() >= sampleHighWatermark
+                && sampleSequence.getAndIncrement() % config.getSampleRate() != 0) {
+            return false;
+        }
+        return ringBuffer.offer(sysLogBO);
+    }
+
+    private void writeLoop() {
+        int batchSize = config.getBatchSize();
+        long flushIntervalNanos = config.getFlushInterval().toNanos();
+        long idleParkNanos = Math.min(MAX_IDLE_PARK_NANOS, flushIntervalNanos);
+        List<SysLogBO> batch = new ArrayList<>(batchSize);
+        long batchStartNanos = 0;
+        long lastSinkFlushNanos = System.nanoTime();
+
+        while (running) {
+            int before = batch.size();
+            ringBuffer.drainTo(batch, batchSize - before);
+            long now = System.nanoTime();
+            if (before == 0 && !batch.isEmpty()) {
+                batchStartNanos = now;
+            }
+
+            if (batch.size() >= batchSize
+                    || (!batch.isEmpty() && now - batchStartNanos >= flushIntervalNanos)) {
+                flush(batch);
+            } else if (batch.size() == before) {
+                if (now - lastSinkFlushNanos >= flushIntervalNanos) {
+                    flushSinks();
+                    lastSinkFlushNanos = now;
+                }
+                LockSupport.parkNanos(idleParkNanos);
+            }
+        }
+
+        // 停止前把队列中剩余的日志全部写完
+        do {
+            flush(batch);
+        } while (ringBuffer.drainTo(batch, batchSize) > 0);
+        flushSinks();
+    }
+
+    private void flushSinks() {
+        for (SysLogSink sink : sinks) {
+            try {
+                sink.flush();
+            } catch (RuntimeException e) {
+                log.error("{} 刷新失败", sink.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    private void flush(List<SysLogBO> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        for (SysLogSink sink : sinks) {
+            try {
+                sink.write(batch);
+            } catch (RuntimeException e) {
+                log.error("{} 写入 {} 条系统日志失败", sink.getClass().getSimpleName(), batch.size(), e);
+            }
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batch.clear();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < config.getWriterThreads(); i++) {
+            Thread writer = new Thread(this::writeLoop, "syslog-writer-" + i);
+            writer.setDaemon(true);
+            writer.start();
+            writers.add(writer);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Thread writer : writers) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        writers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 比 Web 服务器更早启动、更晚停止，保证停机前收到的请求日志都能写完
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 2048;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.sampling;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/24
+ * @usage RatioSampler 按固定比例采样
+ */
+public class RatioSampler implements SysLogSampler {
+
+    private final double ratio;
+
+    public RatioSampler(double ratio) {
+        if (!(ratio >= 0 && ratio <= 1)) {
+            throw new IllegalArgumentException("sampleRatio must be between 0 and 1: " + ratio);
+        }
+        this.ratio = ratio;
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        return ThreadLocalRandom.current().nextDouble() < ratio;
+    }
+}
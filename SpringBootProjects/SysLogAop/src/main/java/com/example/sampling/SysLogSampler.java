@@ -0,0 +1,16 @@
+package com.example.sampling;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/24
+ * @usage SysLogSampler 采样器，在请求线程中调用，实现必须无锁
+ */
+public interface SysLogSampler {
+
+    SysLogSampler ALWAYS = () -> true;
+
+    /**
+     * @return 本次调用是否记录
+     */
+    boolean tryAcquire();
+}
@@ -0,0 +1,79 @@
+package com.example.sampling;
+
+import com.example.annotation.SysLog;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/24
+ * @usage SysLogSamplingPolicy 由 @SysLog 解析出的采样规则，每个方法一份
+ * 调用结束后再决定是否记录：抛出异常或执行时间超过阈值的调用一定记录，其余调用交给采样器；
+ * 被采样丢弃的次数单独计数，便于按比例推算总调用量
+ */
+public class SysLogSamplingPolicy {
+
+    private final SysLogSampler sampler;
+
+    private final long slowThresholdMillis;
+
+    private final boolean alwaysRecordErrors;
+
+    private final LongAdder recorded = new LongAdder();
+
+    private final LongAdder sampledOut = new LongAdder();
+
+    public SysLogSamplingPolicy(SysLog sysLog, String methodKey, MeterRegistry meterRegistry) {
+        this.sampler = createSampler(sysLog);
+        this.slowThresholdMillis = sysLog.slowThresholdMillis();
+        this.alwaysRecordErrors = sysLog.alwaysRecordErrors();
+
+        FunctionCounter.builder("syslog.recorded", recorded, LongAdder::doubleValue)
+                .description("被记录的 @SysLog 调用次数")
+                .tag("method", methodKey)
+                .register(meterRegistry);
+        FunctionCounter.builder("syslog.sampled.out", sampledOut, LongAdder::doubleValue)
+                .description("被采样丢弃的 @SysLog 调用次数")
+                .tag("method", methodKey)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 启动时检查采样参数，参数非法时抛出 IllegalArgumentException，避免到第一次调用时才失败
+     * @param sysLog 注解
+     */
+    public static void validate(SysLog sysLog) {
+        createSampler(sysLog);
+    }
+
+    private static SysLogSampler createSampler(SysLog sysLog) {
+        switch (sysLog.sampling()) {
+            case RATIO:
+                return new RatioSampler(sysLog.sampleRatio());
+            case RATE_LIMIT:
+                return new TokenBucketSampler(sysLog.permitsPerSecond());
+            case ALL:
+            default:
+                return SysLogSampler.ALWAYS;
+        }
+    }
+
+    /**
+     * 判断本次调用是否需要记录
+     * @param executeTime 执行时间（毫秒）
+     * @param failed 是否抛出异常
+     * @return 是否记录
+     */
+    public boolean shouldRecord(long executeTime, boolean failed) {
+        if ((failed && alwaysRecordErrors)
+                || (slowThresholdMillis >= 0 && executeTime > slowThresholdMillis)
+                || sampler.tryAcquire()) {
+            recorded.increment();
+            return true;
+        }
+        sampledOut.increment();
+        return false;
+    }
+}
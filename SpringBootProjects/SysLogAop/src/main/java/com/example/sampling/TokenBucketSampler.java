@@ -0,0 +1,44 @@
+package com.example.sampling;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/24
+ * @usage TokenBucketSampler 无锁令牌桶
+ * 只用一个 AtomicLong 保存"下一个令牌的理论发放时间"，每次获取令牌把它向后推一个间隔，
+ * 推到超过当前时间加桶容量时说明令牌已用完；桶容量为一秒的令牌数
+ */
+public class TokenBucketSampler implements SysLogSampler {
+
+    private final long intervalNanos;
+
+    private final long burstNanos;
+
+    private final AtomicLong theoreticalArrivalNanos;
+
+    public TokenBucketSampler(double permitsPerSecond) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive: " + permitsPerSecond);
+        }
+        this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = TimeUnit.SECONDS.toNanos(1);
+        this.theoreticalArrivalNanos = new AtomicLong(System.nanoTime());
+    }
+
+    @Override
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        while (true) {
+            long arrival = theoreticalArrivalNanos.get();
+            long next = Math.max(arrival, now) + intervalNanos;
+            if (next - now > burstNanos) {
+                return false;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(arrival, next)) {
+                return true;
+            }
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.service;
 
 import com.example.entity.SysLogBO;
+import com.example.pipeline.SysLogPipeline;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 /**
@@ -13,8 +15,16 @@ import org.springframework.stereotype.Service;
 @Slf4j
 @Service
 public class SysLogService {
+
+    @Autowired
+    private SysLogPipeline sysLogPipeline;
+
+    /**
+     * 保存系统日志：只放入异步管道，由后台线程批量交给 SysLogSink 写入
+     * @param sysLogBO 系统日志
+     * @return 是否被管道接收（队列写满并被丢弃时返回false）
+     */
     public boolean save(SysLogBO sysLogBO) {
-        log.info(sysLogBO.getParams());
-        return true;
+        return sysLogPipeline.publish(sysLogBO);
     }
 }
@@ -0,0 +1,32 @@
+package com.example.sink;
+
+import com.example.entity.SysLogBO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/20
+ * @usage Slf4jSysLogSink 通过日志框架输出系统日志
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "syslog.sink.slf4j", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class Slf4jSysLogSink implements SysLogSink {
+    @Override
+    public void write(List<SysLogBO> batch) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        for (SysLogBO sysLogBO : batch) {
+            if (sysLogBO.getException() == null) {
+                log.info(sysLogBO.getParams());
+            } else {
+                log.info("{} 抛出异常 {}", sysLogBO.getParams(), sysLogBO.getException());
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.sink;
+
+import com.example.entity.SysLogBO;
+
+import java.util.List;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/20
+ * @usage SysLogSink 系统日志的落地方式，由后台写入线程批量调用
+ * 实现类注册为 Spring Bean 即可生效，可以同时启用多个；有多个写入线程时 write 可能被并发调用
+ */
+public interface SysLogSink {
+
+    /**
+     * 批量写入系统日志
+     * @param batch 一批日志，调用结束后列表会被复用，不要持有引用
+     */
+    void write(List<SysLogBO> batch);
+
+    /**
+     * 写入线程空闲时按 flushInterval 周期调用，停止前也会调用一次；
+     * 自己缓存数据的实现可以在这里把超时未写出的数据写出
+     */
+    default void flush() {
+    }
+}
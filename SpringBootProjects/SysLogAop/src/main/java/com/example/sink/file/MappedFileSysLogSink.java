@@ -0,0 +1,121 @@
+package com.example.sink.file;
+
+import com.example.config.SysLogProperties;
+import com.example.entity.SysLogBO;
+import com.example.sink.SysLogSink;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/25
+ * @usage MappedFileSysLogSink 把系统日志以二进制格式追加到内存映射文件
+ * 每个分段文件创建时一次性映射，写入只是内存拷贝，不会每条记录产生一次系统调用；
+ * 分段写满后写入结束标记并切换到下一个文件。文件格式见 SysLogRecordCodec，读取见 SysLogFileReader
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "syslog.sink.mapped-file", name = "enabled", havingValue = "true")
+public class MappedFileSysLogSink implements SysLogSink, DisposableBean {
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final boolean forceOnWrite;
+
+    private long segmentSequence;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    public MappedFileSysLogSink(SysLogProperties properties) throws IOException {
+        SysLogProperties.MappedFileSink config = properties.getSink().getMappedFile();
+        this.directory = Paths.get(config.getDirectory());
+        this.segmentSize = (int) Math.min(Integer.MAX_VALUE, config.getSegmentSize().toBytes());
+        this.forceOnWrite = config.isForceOnWrite();
+        if (segmentSize <= SysLogRecordCodec.HEADER_SIZE + 2 * SysLogRecordCodec.LENGTH_SIZE) {
+            throw new IllegalArgumentException("segment size too small: " + segmentSize);
+        }
+
+        // 每次启动都从一个新分段开始，不去修改上次未写满的分段
+        Files.createDirectories(directory);
+        this.segmentSequence = SysLogSegments.lastSequence(directory);
+        openNextSegment();
+    }
+
+    @Override
+    public synchronized void write(List<SysLogBO> batch) {
+        try {
+            for (SysLogBO sysLogBO : batch) {
+                append(sysLogBO);
+            }
+            if (forceOnWrite) {
+                buffer.force();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void append(SysLogBO sysLogBO) throws IOException {
+        SysLogRecordCodec.EncodedRecord record = SysLogRecordCodec.encode(sysLogBO);
+        int required = SysLogRecordCodec.LENGTH_SIZE + record.length();
+        // 始终为结束标记保留 4 个字节
+        int maxRecord = segmentSize - SysLogRecordCodec.HEADER_SIZE - 2 * SysLogRecordCodec.LENGTH_SIZE;
+        if (required > maxRecord) {
+            log.warn("系统日志 {}#{} 编码后 {} 字节，超过分段大小，已丢弃",
+                    sysLogBO.getClassName(), sysLogBO.getMethodName(), required);
+            return;
+        }
+        if (buffer.remaining() - SysLogRecordCodec.LENGTH_SIZE < required) {
+            buffer.putInt(buffer.position(), SysLogRecordCodec.END_OF_SEGMENT);
+            openNextSegment();
+        }
+
+        int start = buffer.position();
+        buffer.position(start + SysLogRecordCodec.LENGTH_SIZE);
+        record.writeTo(buffer);
+        // 内容写完后再写长度，读取方看到非 0 的长度时记录一定是完整的
+        buffer.putInt(start, record.length());
+    }
+
+    private void openNextSegment() throws IOException {
+        closeSegment();
+        segmentSequence++;
+        Path file = SysLogSegments.segmentFile(directory, segmentSequence);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        buffer.putInt(SysLogRecordCodec.MAGIC);
+        buffer.putInt(SysLogRecordCodec.VERSION);
+        log.info("系统日志分段文件：{}", file);
+    }
+
+    private void closeSegment() throws IOException {
+        if (channel != null) {
+            buffer.force();
+            channel.close();
+            channel = null;
+            buffer = null;
+        }
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        closeSegment();
+    }
+}
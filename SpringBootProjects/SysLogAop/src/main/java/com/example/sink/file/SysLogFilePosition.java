@@ -0,0 +1,25 @@
+package com.example.sink.file;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/25
+ * @usage SysLogFilePosition 读取位置（分段序号 + 文件内偏移），保存后可用于断点续读
+ */
+@Getter
+@ToString
+public final class SysLogFilePosition {
+
+    public static final SysLogFilePosition BEGINNING = new SysLogFilePosition(0, 0);
+
+    private final long segmentSequence;
+
+    private final int offset;
+
+    public SysLogFilePosition(long segmentSequence, int offset) {
+        this.segmentSequence = segmentSequence;
+        this.offset = offset;
+    }
+}
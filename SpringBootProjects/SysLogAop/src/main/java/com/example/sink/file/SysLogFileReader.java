@@ -0,0 +1,133 @@
+package com.example.sink.file;
+
+import com.example.entity.SysLogBO;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/25
+ * @usage SysLogFileReader 读取 MappedFileSysLogSink 写入的分段文件
+ * 既可以一次性读完历史记录，也可以反复调用 read 追踪正在写入的文件（tail）：
+ * 读到未提交的记录时返回，下次调用从同一位置继续；读到结束标记时自动切换到下一个分段
+ */
+public class SysLogFileReader implements Closeable {
+
+    private final Path directory;
+
+    private long segmentSequence;
+
+    private int offset;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    public SysLogFileReader(Path directory) {
+        this(directory, SysLogFilePosition.BEGINNING);
+    }
+
+    public SysLogFileReader(Path directory, SysLogFilePosition position) {
+        this.directory = directory;
+        this.segmentSequence = position.getSegmentSequence();
+        this.offset = position.getOffset();
+    }
+
+    /**
+     * 读取已提交的记录
+     * @param consumer 记录处理
+     * @param maxRecords 本次最多读取的条数
+     * @return 本次读取的条数，0 表示暂时没有新记录
+     * @throws IOException 文件读取失败
+     */
+    public int read(Consumer<SysLogBO> consumer, int maxRecords) throws IOException {
+        int count = 0;
+        while (count < maxRecords) {
+            if (buffer == null && !openSegment()) {
+                break;
+            }
+            int length = offset + SysLogRecordCodec.LENGTH_SIZE <= buffer.limit()
+                    ? buffer.getInt(offset) : SysLogRecordCodec.END_OF_SEGMENT;
+            if (length == SysLogRecordCodec.END_OF_SEGMENT) {
+                nextSegment();
+                continue;
+            }
+            if (length == 0) {
+                // 写入方重启后会从新分段开始，旧分段不会再有新记录
+                if (hasNewerSegment()) {
+                    nextSegment();
+                    continue;
+                }
+                break;
+            }
+
+            ByteBuffer record = buffer.duplicate();
+            record.position(offset + SysLogRecordCodec.LENGTH_SIZE);
+            record.limit(offset + SysLogRecordCodec.LENGTH_SIZE + length);
+            consumer.accept(SysLogRecordCodec.decode(record));
+            offset += SysLogRecordCodec.LENGTH_SIZE + length;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return 当前读取位置
+     */
+    public SysLogFilePosition position() {
+        return new SysLogFilePosition(segmentSequence, offset);
+    }
+
+    private boolean openSegment() throws IOException {
+        for (long sequence : SysLogSegments.sequences(directory)) {
+            if (sequence < segmentSequence) {
+                continue;
+            }
+            if (sequence > segmentSequence) {
+                segmentSequence = sequence;
+                offset = 0;
+            }
+            channel = FileChannel.open(SysLogSegments.segmentFile(directory, sequence), StandardOpenOption.READ);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.limit() < SysLogRecordCodec.HEADER_SIZE || buffer.getInt(0) != SysLogRecordCodec.MAGIC) {
+                closeSegment();
+                throw new IOException("not a syslog segment: " + SysLogSegments.segmentFile(directory, sequence));
+            }
+            offset = Math.max(offset, SysLogRecordCodec.HEADER_SIZE);
+            return true;
+        }
+        return false;
+    }
+
+    private void nextSegment() throws IOException {
+        closeSegment();
+        segmentSequence++;
+        offset = 0;
+    }
+
+    private boolean hasNewerSegment() throws IOException {
+        List<Long> sequences = SysLogSegments.sequences(directory);
+        return !sequences.isEmpty() && sequences.get(sequences.size() - 1) > segmentSequence;
+    }
+
+    private void closeSegment() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+            buffer = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeSegment();
+    }
+}
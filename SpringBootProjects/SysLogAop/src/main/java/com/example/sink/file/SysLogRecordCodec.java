@@ -0,0 +1,112 @@
+package com.example.sink.file;
+
+import com.example.entity.SysLogBO;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/25
+ * @usage SysLogRecordCodec SysLogBO 的二进制编码
+ * 分段文件格式：
+ * 文件头 = magic(int) + version(int)
+ * 记录 = length(int) + createTime(long) + executeTime(long) + remark + className + methodName + params + exception
+ * 字符串 = 字节数(int，-1 表示 null) + UTF-8 字节
+ * length 在记录内容写完后最后写入，读到 0 表示后面还没有完整记录，读到 -1 表示本分段已结束
+ */
+public final class SysLogRecordCodec {
+
+    static final int MAGIC = 0x53594C47;
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 8;
+
+    static final int LENGTH_SIZE = 4;
+
+    static final int END_OF_SEGMENT = -1;
+
+    private static final int FIXED_SIZE = 8 + 8 + 5 * 4;
+
+    private SysLogRecordCodec() {
+    }
+
+    /**
+     * 编码后的一条记录，先计算长度再写入，避免写到一半才发现分段空间不够
+     */
+    static final class EncodedRecord {
+        private final long createTime;
+        private final long executeTime;
+        private final byte[][] strings;
+        private final int length;
+
+        private EncodedRecord(SysLogBO sysLogBO) {
+            this.createTime = sysLogBO.getCreateTime();
+            this.executeTime = sysLogBO.getExecuteTime() == null ? -1 : sysLogBO.getExecuteTime();
+            this.strings = new byte[][]{
+                    bytes(sysLogBO.getRemark()),
+                    bytes(sysLogBO.getClassName()),
+                    bytes(sysLogBO.getMethodName()),
+                    bytes(sysLogBO.getParams()),
+                    bytes(sysLogBO.getException())
+            };
+            int size = FIXED_SIZE;
+            for (byte[] string : strings) {
+                size += string == null ? 0 : string.length;
+            }
+            this.length = size;
+        }
+
+        int length() {
+            return length;
+        }
+
+        void writeTo(ByteBuffer buffer) {
+            buffer.putLong(createTime);
+            buffer.putLong(executeTime);
+            for (byte[] string : strings) {
+                if (string == null) {
+                    buffer.putInt(-1);
+                } else {
+                    buffer.putInt(string.length);
+                    buffer.put(string);
+                }
+            }
+        }
+
+        private static byte[] bytes(String value) {
+            return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    static EncodedRecord encode(SysLogBO sysLogBO) {
+        return new EncodedRecord(sysLogBO);
+    }
+
+    /**
+     * 从 buffer 当前位置解码一条记录的内容（不含 length）
+     */
+    static SysLogBO decode(ByteBuffer buffer) {
+        SysLogBO sysLogBO = new SysLogBO();
+        sysLogBO.setCreateTime(buffer.getLong());
+        long executeTime = buffer.getLong();
+        sysLogBO.setExecuteTime(executeTime < 0 ? null : executeTime);
+        sysLogBO.setRemark(readString(buffer));
+        sysLogBO.setClassName(readString(buffer));
+        sysLogBO.setMethodName(readString(buffer));
+        sysLogBO.setParams(readString(buffer));
+        sysLogBO.setException(readString(buffer));
+        return sysLogBO;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
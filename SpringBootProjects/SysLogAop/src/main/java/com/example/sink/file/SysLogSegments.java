@@ -0,0 +1,55 @@
+package com.example.sink.file;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/25
+ * @usage SysLogSegments 分段文件命名：syslog-序号.seg，序号补齐 20 位，按文件名排序即按写入顺序排序
+ */
+final class SysLogSegments {
+
+    private static final String PREFIX = "syslog-";
+
+    private static final String SUFFIX = ".seg";
+
+    private SysLogSegments() {
+    }
+
+    static Path segmentFile(Path directory, long sequence) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, sequence, SUFFIX));
+    }
+
+    /**
+     * @return 目录下按序号排列的全部分段序号
+     */
+    static List<Long> sequences(Path directory) throws IOException {
+        List<Long> sequences = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return sequences;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                try {
+                    sequences.add(Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+                } catch (NumberFormatException ignored) {
+                    // 不是本程序生成的文件
+                }
+            }
+        }
+        Collections.sort(sequences);
+        return sequences;
+    }
+
+    static long lastSequence(Path directory) throws IOException {
+        List<Long> sequences = sequences(directory);
+        return sequences.isEmpty() ? 0 : sequences.get(sequences.size() - 1);
+    }
+}
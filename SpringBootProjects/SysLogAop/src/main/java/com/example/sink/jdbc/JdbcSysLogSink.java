@@ -0,0 +1,242 @@
+package com.example.sink.jdbc;
+
+import com.example.config.SysLogProperties;
+import com.example.entity.SysLogBO;
+import com.example.sink.SysLogSink;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/26
+ * @usage JdbcSysLogSink 把系统日志批量写入数据库表 sys_log
+ * 日志先在内存中攒批，达到 batchSize 或最早一条等待超过 linger 时通过 addBatch/executeBatch 一次写入；
+ * MySQL 需要在连接串中加上 rewriteBatchedStatements=true，驱动才会改写为多行 VALUES 的 INSERT。
+ * 每一批在一个事务中写入，失败时整批回滚，重试不会产生重复行。
+ * 只有连接中断、死锁、超时等暂时性错误（TransientDataAccessException、RecoverableDataAccessException）
+ * 才交给重试线程按指数退避重试，写入线程不等待；SQL 错误、约束冲突等重试也不会成功的错误以及重试耗尽时丢弃这一批并计数
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "syslog.sink.jdbc", name = "enabled", havingValue = "true")
+public class JdbcSysLogSink implements SysLogSink, DisposableBean {
+
+    private static final String INSERT_SQL = "INSERT INTO sys_log "
+            + "(class_name, method_name, remark, params, exception, execute_time, create_time) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_CLASS_NAME_LENGTH = 255;
+
+    private static final int MAX_METHOD_NAME_LENGTH = 128;
+
+    private static final int MAX_REMARK_LENGTH = 255;
+
+    private static final int MAX_PARAMS_LENGTH = 4000;
+
+    private static final int MAX_EXCEPTION_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final SysLogProperties.JdbcSink config;
+
+    private final List<SysLogBO> pending = new ArrayList<>();
+
+    /**
+     * pending 中最早一条日志的到达时间，pending 清空后才重新计时
+     */
+    private long oldestPendingNanos;
+
+    /**
+     * 执行退避重试，避免在写入线程中 sleep 阻塞整个日志管道
+     */
+    private final ScheduledExecutorService retryScheduler;
+
+    private final Counter insertedRows;
+
+    private final Counter failedRows;
+
+    private final Timer batchTimer;
+
+    private final DistributionSummary batchRows;
+
+    public JdbcSysLogSink(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                          SysLogProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.config = properties.getSink().getJdbc();
+        if (config.isInitializeSchema()) {
+            new ResourceDatabasePopulator(new ClassPathResource("syslog-schema.sql"))
+                    .execute(jdbcTemplate.getDataSource());
+        }
+
+        this.insertedRows = Counter.builder("syslog.jdbc.rows")
+                .description("写入 sys_log 的行数")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.failedRows = Counter.builder("syslog.jdbc.rows")
+                .description("写入 sys_log 的行数")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("syslog.jdbc.batch")
+                .description("每次 executeBatch 的耗时，重试单独计一次")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchRows = DistributionSummary.builder("syslog.jdbc.batch.rows")
+                .description("每次 executeBatch 的行数")
+                .register(meterRegistry);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "syslog-jdbc-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public synchronized void write(List<SysLogBO> batch) {
+        if (pending.isEmpty() && !batch.isEmpty()) {
+            oldestPendingNanos = System.nanoTime();
+        }
+        pending.addAll(batch);
+        while (pending.size() >= config.getBatchSize()) {
+            List<SysLogBO> chunk = pending.subList(0, config.getBatchSize());
+            execute(chunk);
+            chunk.clear();
+        }
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (!pending.isEmpty() && System.nanoTime() - oldestPendingNanos >= config.getLinger().toNanos()) {
+            execute(pending);
+            pending.clear();
+        }
+    }
+
+    private void execute(List<SysLogBO> rows) {
+        batchRows.record(rows.size());
+        attempt(rows, 0, config.getRetryBackoff().toMillis());
+    }
+
+    /**
+     * 写入一次，暂时性错误时把这一批的副本交给重试线程，在 backoffMillis 后再次调用本方法
+     */
+    private void attempt(List<SysLogBO> rows, int attempt, long backoffMillis) {
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> jdbcTemplate.batchUpdate(INSERT_SQL, new SysLogBatchSetter(rows)));
+            insertedRows.increment(rows.size());
+        } catch (DataAccessException | TransactionException e) {
+            if (!isTransient(e)) {
+                failedRows.increment(rows.size());
+                log.error("写入 {} 条系统日志到 sys_log 失败，错误不可重试", rows.size(), e);
+                return;
+            }
+            if (attempt >= config.getMaxRetries()) {
+                failedRows.increment(rows.size());
+                log.error("写入 {} 条系统日志到 sys_log 失败，已重试 {} 次", rows.size(), attempt, e);
+                return;
+            }
+            log.warn("写入 sys_log 失败，{} ms 后第 {} 次重试：{}", backoffMillis, attempt + 1, e.getMessage());
+            // 第一次失败时 rows 可能是 pending 的 subList，调用方返回后会被清空
+            List<SysLogBO> retryRows = attempt == 0 ? new ArrayList<>(rows) : rows;
+            long nextBackoffMillis = Math.min(backoffMillis * 2, config.getMaxRetryBackoff().toMillis());
+            try {
+                retryScheduler.schedule(() -> attempt(retryRows, attempt + 1, nextBackoffMillis),
+                        backoffMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException rejected) {
+                // 已关闭
+                failedRows.increment(rows.size());
+            }
+        } finally {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 取不到连接时开启事务失败，抛出的是 CannotCreateTransactionException，同样可以重试
+     */
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException || e instanceof RecoverableDataAccessException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        synchronized (this) {
+            if (!pending.isEmpty()) {
+                execute(pending);
+                pending.clear();
+            }
+        }
+        // 已安排的重试在关闭后仍会执行，最多等待全部重试的退避时间之和
+        retryScheduler.shutdown();
+        long maxWaitMillis = config.getMaxRetryBackoff().toMillis() * (config.getMaxRetries() + 1);
+        if (!retryScheduler.awaitTermination(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+            retryScheduler.shutdownNow();
+        }
+    }
+
+    private static class SysLogBatchSetter implements BatchPreparedStatementSetter {
+        private final List<SysLogBO> rows;
+
+        SysLogBatchSetter(List<SysLogBO> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+            SysLogBO sysLogBO = rows.get(i);
+            ps.setString(1, truncate(sysLogBO.getClassName(), MAX_CLASS_NAME_LENGTH));
+            ps.setString(2, truncate(sysLogBO.getMethodName(), MAX_METHOD_NAME_LENGTH));
+            ps.setString(3, truncate(sysLogBO.getRemark(), MAX_REMARK_LENGTH));
+            ps.setString(4, truncate(sysLogBO.getParams(), MAX_PARAMS_LENGTH));
+            ps.setString(5, truncate(sysLogBO.getException(), MAX_EXCEPTION_LENGTH));
+            if (sysLogBO.getExecuteTime() == null) {
+                ps.setNull(6, Types.BIGINT);
+            } else {
+                ps.setLong(6, sysLogBO.getExecuteTime());
+            }
+            ps.setTimestamp(7, new Timestamp(sysLogBO.getCreateTime()));
+        }
+
+        @Override
+        public int getBatchSize() {
+            return rows.size();
+        }
+
+        private static String truncate(String value, int maxLength) {
+            return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+        }
+    }
+}
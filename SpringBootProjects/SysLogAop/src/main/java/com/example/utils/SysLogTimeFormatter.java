@@ -0,0 +1,69 @@
+package com.example.utils;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/22
+ * @usage SysLogTimeFormatter 把毫秒时间戳格式化为 yyyy-MM-dd HH:mm:ss.SSS
+ * 同一秒内的时间戳共用缓存的 "yyyy-MM-dd HH:mm:ss." 前缀，每次只需要追加三位毫秒；
+ * DateTimeFormatter 本身线程安全，缓存通过 volatile 引用整体替换，因此整个类可以被多个线程共享
+ */
+public final class SysLogTimeFormatter {
+
+    private static final DateTimeFormatter SECOND_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.").withZone(ZoneId.systemDefault());
+
+    private static volatile CachedSecond cachedSecond = new CachedSecond(Long.MIN_VALUE, "");
+
+    private SysLogTimeFormatter() {
+    }
+
+    /**
+     * 格式化毫秒时间戳
+     * @param epochMillis 毫秒时间戳
+     * @return yyyy-MM-dd HH:mm:ss.SSS
+     */
+    public static String format(long epochMillis) {
+        return appendTo(new StringBuilder(23), epochMillis).toString();
+    }
+
+    /**
+     * 把格式化后的时间追加到 StringBuilder，供需要自行拼接的落地方式使用
+     * @param builder StringBuilder
+     * @param epochMillis 毫秒时间戳
+     * @return builder
+     */
+    public static StringBuilder appendTo(StringBuilder builder, long epochMillis) {
+        long epochSecond = Math.floorDiv(epochMillis, 1000L);
+        int millis = (int) Math.floorMod(epochMillis, 1000L);
+
+        CachedSecond cached = cachedSecond;
+        if (cached.epochSecond != epochSecond) {
+            cached = new CachedSecond(epochSecond, SECOND_FORMATTER.format(Instant.ofEpochSecond(epochSecond)));
+            cachedSecond = cached;
+        }
+
+        builder.append(cached.prefix);
+        if (millis < 100) {
+            builder.append('0');
+        }
+        if (millis < 10) {
+            builder.append('0');
+        }
+        return builder.append(millis);
+    }
+
+    private static final class CachedSecond {
+        private final long epochSecond;
+
+        private final String prefix;
+
+        private CachedSecond(long epochSecond, String prefix) {
+            this.epochSecond = epochSecond;
+            this.prefix = prefix;
+        }
+    }
+}
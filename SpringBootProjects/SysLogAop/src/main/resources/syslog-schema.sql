@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS sys_log (
+    id           BIGINT AUTO_INCREMENT PRIMARY KEY,
+    class_name   VARCHAR(255),
+    method_name  VARCHAR(128),
+    remark       VARCHAR(255),
+    params       VARCHAR(4000),
+    exception    VARCHAR(1000),
+    execute_time BIGINT,
+    create_time  TIMESTAMP(3)
+);
@@ -0,0 +1,50 @@
+package com.example.aspect;
+
+import com.example.annotation.SamplingMode;
+import com.example.annotation.SysLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.BeanInitializationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SysLogAnnotationValidatorTests {
+
+    static class ValidService {
+        @SysLog(sampling = SamplingMode.RATIO, sampleRatio = 0.1)
+        public void ratio() {
+        }
+
+        @SysLog(sampling = SamplingMode.RATE_LIMIT, permitsPerSecond = 10)
+        public void rateLimit() {
+        }
+    }
+
+    static class InvalidRatioService {
+        @SysLog(sampling = SamplingMode.RATIO, sampleRatio = 1.5)
+        public void ratio() {
+        }
+    }
+
+    static class InvalidRateService {
+        @SysLog(sampling = SamplingMode.RATE_LIMIT, permitsPerSecond = 0)
+        public void rateLimit() {
+        }
+    }
+
+    private final SysLogAnnotationValidator validator = new SysLogAnnotationValidator();
+
+    @Test
+    void acceptsValidSamplingSettings() {
+        ValidService bean = new ValidService();
+
+        assertSame(bean, validator.postProcessAfterInitialization(bean, "validService"));
+    }
+
+    @Test
+    void rejectsInvalidSamplingSettingsAtStartup() {
+        assertThrows(BeanInitializationException.class,
+                () -> validator.postProcessAfterInitialization(new InvalidRatioService(), "invalidRatioService"));
+        assertThrows(BeanInitializationException.class,
+                () -> validator.postProcessAfterInitialization(new InvalidRateService(), "invalidRateService"));
+    }
+}
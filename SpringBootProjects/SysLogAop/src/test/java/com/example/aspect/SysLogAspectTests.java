@@ -0,0 +1,37 @@
+package com.example.aspect;
+
+import com.example.config.SysLogAspectConfig;
+import com.example.controller.SysLogAopController;
+import com.example.latency.RollingLatencyHistogram;
+import com.example.latency.SysLogLatencyRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 默认构建和 mvn -Pctw 构建下都应通过：每次调用只被拦截一次
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class SysLogAspectTests {
+
+    @Autowired
+    private SysLogAopController sysLogAopController;
+
+    @Autowired
+    private SysLogLatencyRegistry sysLogLatencyRegistry;
+
+    @Test
+    void interceptsEachCallOnce() {
+        assertEquals(!SysLogAspectConfig.isCompileTimeWoven(), AopUtils.isAopProxy(sysLogAopController));
+
+        RollingLatencyHistogram histogram = sysLogLatencyRegistry.histogram("测试AOP");
+        long before = histogram.snapshot(histogram.maxWindowMillis()).getCount();
+
+        assertEquals("chenzufeng 18", sysLogAopController.test("chenzufeng", 18));
+
+        assertEquals(before + 1, histogram.snapshot(histogram.maxWindowMillis()).getCount());
+    }
+}
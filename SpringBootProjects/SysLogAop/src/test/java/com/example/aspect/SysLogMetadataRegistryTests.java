@@ -0,0 +1,93 @@
+package com.example.aspect;
+
+import com.example.annotation.SysLog;
+import com.example.capture.SysLogArgRendererRegistry;
+import com.example.config.SysLogProperties;
+import com.example.latency.SysLogLatencyRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SysLogMetadataRegistryTests {
+
+    interface Task {
+        String run(String name);
+    }
+
+    static class FirstTask implements Task {
+        @Override
+        @SysLog("第一个任务")
+        public String run(String name) {
+            return name;
+        }
+    }
+
+    static class SecondTask implements Task {
+        @Override
+        @SysLog("第二个任务")
+        public String run(String name) {
+            return name;
+        }
+    }
+
+    static class OverloadedTask {
+        @SysLog
+        public String run(String name) {
+            return name;
+        }
+
+        @SysLog
+        public String run(String name, int times) {
+            return name;
+        }
+    }
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SysLogMetadataRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new SysLogMetadataRegistry(new SysLogArgRendererRegistry(Collections.emptyList()),
+                meterRegistry, new SysLogLatencyRegistry(new SysLogProperties()));
+    }
+
+    @Test
+    void interfaceMethodResolvedPerTargetClass() throws NoSuchMethodException {
+        // JDK 动态代理拦截到的是接口方法
+        Method method = Task.class.getMethod("run", String.class);
+
+        SysLogMethodMetadata first = registry.get(method, FirstTask.class);
+        SysLogMethodMetadata second = registry.get(method, SecondTask.class);
+
+        assertEquals("第一个任务", first.getRemark());
+        assertEquals(FirstTask.class.getName(), first.getClassName());
+        assertEquals("第二个任务", second.getRemark());
+        assertEquals(SecondTask.class.getName(), second.getClassName());
+        assertNotSame(first.getLatencyHistogram(), second.getLatencyHistogram());
+        assertSame(first, registry.get(method, FirstTask.class));
+    }
+
+    @Test
+    void overloadsReportSeparateCounters() throws NoSuchMethodException {
+        SysLogMethodMetadata single = registry.get(OverloadedTask.class.getMethod("run", String.class),
+                OverloadedTask.class);
+        SysLogMethodMetadata twice = registry.get(OverloadedTask.class.getMethod("run", String.class, int.class),
+                OverloadedTask.class);
+
+        single.getSamplingPolicy().shouldRecord(0, false);
+        twice.getSamplingPolicy().shouldRecord(0, false);
+        twice.getSamplingPolicy().shouldRecord(0, false);
+
+        assertEquals(1.0, meterRegistry.get("syslog.recorded")
+                .tag("method", OverloadedTask.class.getName() + "#run(String)").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("syslog.recorded")
+                .tag("method", OverloadedTask.class.getName() + "#run(String,int)").functionCounter().count());
+    }
+}
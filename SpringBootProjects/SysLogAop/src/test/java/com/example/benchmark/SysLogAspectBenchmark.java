@@ -0,0 +1,98 @@
+package com.example.benchmark;
+
+import com.example.aspect.SysLogAspect;
+import com.example.aspect.SysLogMetadataRegistry;
+import com.example.capture.SysLogArgRendererRegistry;
+import com.example.config.SysLogProperties;
+import com.example.controller.SysLogAopController;
+import com.example.entity.SysLogBO;
+import com.example.latency.SysLogLatencyRegistry;
+import com.example.service.SysLogService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/21
+ * @usage SysLogAspectBenchmark 对比元数据缓存前后 SysLogAspect 的单次调用耗时和内存分配
+ * 运行方式：先执行 mvn test-compile，再运行本类的 main 方法；切面通过 AspectJProxyFactory 代理，需在默认（非 ctw）构建下运行
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SysLogAspectBenchmark {
+
+    private SysLogAopController cachedController;
+
+    private SysLogAopController uncachedController;
+
+    /**
+     * 只把日志交给 Blackhole，避免把管道和落地的开销算进切面本身
+     */
+    static class BlackholeSysLogService extends SysLogService {
+        private final Blackhole blackhole;
+
+        BlackholeSysLogService(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public boolean save(SysLogBO sysLogBO) {
+            blackhole.consume(sysLogBO);
+            return true;
+        }
+    }
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        SysLogService sysLogService = new BlackholeSysLogService(blackhole);
+
+        SysLogAspect sysLogAspect = new SysLogAspect();
+        ReflectionTestUtils.setField(sysLogAspect, "sysLogService", sysLogService);
+        ReflectionTestUtils.setField(sysLogAspect, "sysLogMetadataRegistry", new SysLogMetadataRegistry(
+                new SysLogArgRendererRegistry(Collections.emptyList()), new SimpleMeterRegistry(),
+                new SysLogLatencyRegistry(new SysLogProperties())));
+        cachedController = proxy(sysLogAspect);
+
+        uncachedController = proxy(new UncachedSysLogAspect(sysLogService, blackhole));
+    }
+
+    private static SysLogAopController proxy(Object aspect) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new SysLogAopController());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(aspect);
+        return proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public String cached() {
+        return cachedController.test("chenzufeng", 18);
+    }
+
+    @Benchmark
+    public String uncached() {
+        return uncachedController.test("chenzufeng", 18);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SysLogAspectBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.benchmark;
+
+import com.example.SysLogAopApplication;
+import com.example.config.SysLogAspectConfig;
+import com.example.controller.SysLogAopController;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/21
+ * @usage SysLogWeavingBenchmark 对比 Spring AOP 代理织入与 AspectJ 编译期织入的单次调用开销和启动耗时
+ * 织入方式在构建时决定，需要分别构建并运行两次，结果写入 target/jmh-weaving-{proxy|ctw}.json：
+ * mvn test-compile 与 mvn -Pctw test-compile 之后各运行一次本类的 main 方法
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SysLogWeavingBenchmark {
+
+    private static ConfigurableApplicationContext start() {
+        SpringApplication application = new SpringApplication(SysLogAopApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        application.setBannerMode(Banner.Mode.OFF);
+        application.setLogStartupInfo(false);
+        // 只衡量切面本身，不输出日志
+        return application.run("--syslog.sink.slf4j.enabled=false", "--logging.level.root=WARN");
+    }
+
+    @State(Scope.Benchmark)
+    public static class RunningContext {
+        private ConfigurableApplicationContext context;
+
+        private SysLogAopController controller;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            context = start();
+            // 代理织入时拿到的是 CGLIB 代理，编译期织入时拿到的是织入了通知的原始对象
+            controller = context.getBean(SysLogAopController.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public String call(RunningContext runningContext) {
+        return runningContext.controller.test("chenzufeng", 18);
+    }
+
+    /**
+     * 每次都在新的 JVM 中启动，包含类加载和切点匹配的全部开销
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(10)
+    public void startup() {
+        start().close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String mode = SysLogAspectConfig.isCompileTimeWoven() ? "ctw" : "proxy";
+        System.out.println("当前织入方式：" + mode);
+        Options options = new OptionsBuilder()
+                .include(SysLogWeavingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("target/jmh-weaving-" + mode + ".json")
+                .build();
+        new Runner(options).run();
+    }
+}
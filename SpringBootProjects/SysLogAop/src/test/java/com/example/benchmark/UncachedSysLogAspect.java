@@ -0,0 +1,73 @@
+package com.example.benchmark;
+
+import com.example.annotation.SysLog;
+import com.example.entity.SysLogBO;
+import com.example.service.SysLogService;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Method;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+
+/**
+ * @author chenzufeng
+ * @date 2021/11/21
+ * @usage UncachedSysLogAspect 引入元数据缓存之前的 SysLogAspect，仅作为基准测试的对照组
+ */
+@Aspect
+public class UncachedSysLogAspect {
+
+    private final SysLogService sysLogService;
+
+    private final Blackhole blackhole;
+
+    public UncachedSysLogAspect(SysLogService sysLogService, Blackhole blackhole) {
+        this.sysLogService = sysLogService;
+        this.blackhole = blackhole;
+    }
+
+    @Around("@annotation(com.example.annotation.SysLog)")
+    public Object around(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
+        long beginTime = System.currentTimeMillis();
+        Object result = proceedingJoinPoint.proceed();
+        long time = System.currentTimeMillis() - beginTime;
+        saveLog(proceedingJoinPoint, time);
+        return result;
+    }
+
+    private void saveLog(ProceedingJoinPoint proceedingJoinPoint, long time) {
+        MethodSignature signature = (MethodSignature) proceedingJoinPoint.getSignature();
+        Method method = signature.getMethod();
+
+        SysLogBO sysLogBO = new SysLogBO();
+        sysLogBO.setExecuteTime(time);
+
+        // SysLogBO 已改为保存时间戳，这里保留原来的格式化开销
+        Date now = new Date();
+        SimpleDateFormat simpleDateFormat = new SimpleDateFormat("yyyy-MM-dd hh:mm:ss");
+        blackhole.consume(simpleDateFormat.format(now));
+        sysLogBO.setCreateTime(now.getTime());
+
+        SysLog sysLog = method.getAnnotation(SysLog.class);
+        if (sysLog != null) {
+            sysLogBO.setRemark(sysLog.value());
+        }
+
+        sysLogBO.setClassName(proceedingJoinPoint.getTarget().getClass().getName());
+        sysLogBO.setMethodName(signature.getName());
+
+        Object[] args = proceedingJoinPoint.getArgs();
+        ArrayList<String> list = new ArrayList<>();
+        for (Object arg : args) {
+            list.add(arg.toString());
+        }
+        sysLogBO.setParams(list.toString());
+
+        sysLogService.save(sysLogBO);
+    }
+}
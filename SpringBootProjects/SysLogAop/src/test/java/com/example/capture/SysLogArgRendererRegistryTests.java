@@ -0,0 +1,62 @@
+package com.example.capture;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SysLogArgRendererRegistryTests {
+
+    private final SysLogArgRendererRegistry registry = new SysLogArgRendererRegistry(Collections.emptyList());
+
+    private String render(int maxArgLength, Object arg) {
+        SysLogArgCapture argCapture = new SysLogArgCapture(new String[]{"arg"}, new int[0], new int[0],
+                maxArgLength, 2048, registry);
+        return argCapture.render(new Object[]{arg});
+    }
+
+    @Test
+    void rendersContainersLikeToString() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("name", "chenzufeng");
+        map.put("tags", new Object[]{"a", null});
+
+        assertEquals("[arg={name=chenzufeng, tags={a, null}}]", render(256, map));
+        assertEquals("[arg=[1, 2]]", render(256, new ArrayList<>(Arrays.asList(1, 2))));
+    }
+
+    @Test
+    void stopsReadingElementsAtLengthLimit() {
+        int[] visited = new int[1];
+        List<String> large = new AbstractList<String>() {
+            @Override
+            public String get(int index) {
+                visited[0]++;
+                return "element" + index;
+            }
+
+            @Override
+            public int size() {
+                return 1_000_000;
+            }
+        };
+
+        assertEquals("[arg=[element0, element1, ele...]", render(24, large));
+        assertTrue(visited[0] < 10, "只应读取达到长度限制前的元素");
+    }
+
+    @Test
+    void collectionContainingItselfDoesNotRecurse() {
+        List<Object> self = new ArrayList<>();
+        self.add(self);
+
+        assertEquals("[arg=[(this ArrayList)]]", render(256, self));
+    }
+}
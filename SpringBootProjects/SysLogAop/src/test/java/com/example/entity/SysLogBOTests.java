@@ -0,0 +1,33 @@
+package com.example.entity;
+
+import com.example.capture.SysLogArgCapture;
+import com.example.capture.SysLogArgRendererRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SysLogBOTests {
+
+    @Test
+    void rendersArgumentsLazilyFromSnapshot() {
+        SysLogArgCapture argCapture = new SysLogArgCapture(new String[]{"names", "password"}, new int[0], new int[]{1},
+                256, 2048, new SysLogArgRendererRegistry(Collections.emptyList()));
+        List<String> names = new ArrayList<>();
+        names.add("chenzufeng");
+        Object[] args = {names, "secret"};
+        SysLogBO sysLogBO = new SysLogBO();
+
+        sysLogBO.captureArgs(args, argCapture);
+        // 不记录的参数在请求线程中就不再被引用
+        assertNull(args[1]);
+        names.add("zufeng");
+
+        // 写入线程第一次读取时才格式化
+        assertEquals("[names=[chenzufeng, zufeng]]", sysLogBO.getParams());
+    }
+}
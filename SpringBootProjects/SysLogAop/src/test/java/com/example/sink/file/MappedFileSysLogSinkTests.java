@@ -0,0 +1,99 @@
+package com.example.sink.file;
+
+import com.example.config.SysLogProperties;
+import com.example.entity.SysLogBO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedFileSysLogSinkTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackRecordsAcrossSegments() throws Exception {
+        MappedFileSysLogSink sink = new MappedFileSysLogSink(properties(DataSize.ofBytes(512)));
+        List<SysLogBO> written = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            written.add(sysLog(i));
+        }
+        sink.write(written);
+        sink.destroy();
+
+        assertTrue(SysLogSegments.sequences(directory).size() > 1);
+
+        List<SysLogBO> read = new ArrayList<>();
+        try (SysLogFileReader reader = new SysLogFileReader(directory)) {
+            assertEquals(50, reader.read(read::add, Integer.MAX_VALUE));
+        }
+        for (int i = 0; i < 50; i++) {
+            assertEquals(written.get(i).getParams(), read.get(i).getParams());
+            assertEquals(written.get(i).getCreateTime(), read.get(i).getCreateTime());
+            assertEquals(written.get(i).getExecuteTime(), read.get(i).getExecuteTime());
+            assertEquals("com.example.controller.SysLogAopController", read.get(i).getClassName());
+        }
+        assertNull(read.get(0).getException());
+        assertEquals("java.lang.IllegalStateException: 5", read.get(5).getException());
+    }
+
+    @Test
+    void tailsSegmentWhileItIsWritten() throws Exception {
+        MappedFileSysLogSink sink = new MappedFileSysLogSink(properties(DataSize.ofKilobytes(64)));
+        List<SysLogBO> read = new ArrayList<>();
+        SysLogFilePosition saved;
+        try (SysLogFileReader reader = new SysLogFileReader(directory)) {
+            sink.write(Collections.singletonList(sysLog(0)));
+            assertEquals(1, reader.read(read::add, 10));
+            assertEquals(0, reader.read(read::add, 10));
+
+            sink.write(Collections.singletonList(sysLog(1)));
+            assertEquals(1, reader.read(read::add, 10));
+            saved = reader.position();
+        }
+        assertEquals("[name=chenzufeng1, age=1]", read.get(1).getParams());
+
+        try {
+            // 从保存的位置继续读取时不会重复，只读到之后写入的记录
+            try (SysLogFileReader reader = new SysLogFileReader(directory, saved)) {
+                assertEquals(0, reader.read(read::add, 10));
+                sink.write(Collections.singletonList(sysLog(2)));
+                assertEquals(1, reader.read(read::add, 10));
+            }
+        } finally {
+            sink.destroy();
+        }
+        assertEquals(3, read.size());
+        assertEquals("[name=chenzufeng2, age=2]", read.get(2).getParams());
+    }
+
+    private SysLogProperties properties(DataSize segmentSize) {
+        SysLogProperties properties = new SysLogProperties();
+        properties.getSink().getMappedFile().setDirectory(directory.toString());
+        properties.getSink().getMappedFile().setSegmentSize(segmentSize);
+        return properties;
+    }
+
+    private static SysLogBO sysLog(int i) {
+        SysLogBO sysLogBO = new SysLogBO();
+        sysLogBO.setRemark("测试AOP");
+        sysLogBO.setClassName("com.example.controller.SysLogAopController");
+        sysLogBO.setMethodName("test");
+        sysLogBO.setParams("[name=chenzufeng" + i + ", age=" + i + "]");
+        sysLogBO.setExecuteTime((long) i);
+        sysLogBO.setCreateTime(1637800000000L + i);
+        if (i % 5 == 0 && i > 0) {
+            sysLogBO.setException("java.lang.IllegalStateException: " + i);
+        }
+        return sysLogBO;
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.sink.jdbc;
+
+import com.example.config.SysLogProperties;
+import com.example.entity.SysLogBO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JdbcSysLogSinkTests {
+
+    private EmbeddedDatabase database;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private DataSourceTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(database);
+        transactionManager = new DataSourceTransactionManager(database);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void writesFullBatchesImmediatelyAndRestAfterLinger() {
+        JdbcSysLogSink sink = new JdbcSysLogSink(jdbcTemplate, transactionManager, properties(Duration.ZERO),
+                meterRegistry);
+
+        sink.write(sysLogs(25));
+        assertEquals(20, count());
+
+        sink.flush();
+        assertEquals(25, count());
+        assertEquals(25, meterRegistry.get("syslog.jdbc.rows").tag("result", "success").counter().count());
+        assertEquals(3, meterRegistry.get("syslog.jdbc.batch").timer().count());
+        assertEquals("[name=chenzufeng7, age=7]",
+                jdbcTemplate.queryForObject("SELECT params FROM sys_log WHERE execute_time = 7", String.class));
+    }
+
+    @Test
+    void keepsPartialBatchUntilLingerExpires() throws Exception {
+        JdbcSysLogSink sink = new JdbcSysLogSink(jdbcTemplate, transactionManager, properties(Duration.ofHours(1)),
+                meterRegistry);
+
+        sink.write(sysLogs(5));
+        sink.flush();
+        assertEquals(0, count());
+
+        sink.destroy();
+        assertEquals(5, count());
+    }
+
+    @Test
+    void lingerCountsFromOldestRecordNotFromLastFullBatch() throws Exception {
+        Duration linger = Duration.ofMillis(50);
+        JdbcSysLogSink sink = new JdbcSysLogSink(jdbcTemplate, transactionManager, properties(linger), meterRegistry);
+
+        sink.write(sysLogs(5));
+        // 让最早的 5 条等待超过 linger
+        Thread.sleep(linger.toMillis() * 2);
+        sink.write(sysLogs(10));
+        assertEquals(10, count());
+
+        // 剩下的 5 条从第一次写入开始计时，已超过 linger
+        sink.flush();
+        assertEquals(15, count());
+        sink.destroy();
+    }
+
+    @Test
+    void retriesTransientErrorsOnSchedulerWithoutBlockingWriter() throws Exception {
+        SysLogProperties properties = properties(Duration.ZERO);
+        properties.getSink().getJdbc().setRetryBackoff(Duration.ofSeconds(1));
+        AtomicInteger transientFailures = new AtomicInteger(1);
+        JdbcTemplate flakyTemplate = new JdbcTemplate(database) {
+            @Override
+            public int[] batchUpdate(String sql, BatchPreparedStatementSetter pss) {
+                if (transientFailures.getAndDecrement() > 0) {
+                    throw new TransientDataAccessResourceException("连接中断");
+                }
+                return super.batchUpdate(sql, pss);
+            }
+        };
+        JdbcSysLogSink sink = new JdbcSysLogSink(flakyTemplate, transactionManager, properties, meterRegistry);
+
+        long start = System.nanoTime();
+        sink.write(sysLogs(10));
+        // 失败后立即返回，不在写入线程中等待退避时间
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0, count());
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> count() == 10);
+        assertEquals(0, meterRegistry.get("syslog.jdbc.rows").tag("result", "failed").counter().count());
+        sink.destroy();
+    }
+
+    @Test
+    void doesNotRetryNonTransientErrors() throws Exception {
+        SysLogProperties properties = properties(Duration.ZERO);
+        properties.getSink().getJdbc().setRetryBackoff(Duration.ofMillis(10));
+        JdbcSysLogSink sink = new JdbcSysLogSink(jdbcTemplate, transactionManager, properties, meterRegistry);
+        jdbcTemplate.execute("ALTER TABLE sys_log RENAME TO sys_log_offline");
+
+        sink.write(sysLogs(10));
+
+        assertEquals(10, meterRegistry.get("syslog.jdbc.rows").tag("result", "failed").counter().count());
+        jdbcTemplate.execute("ALTER TABLE sys_log_offline RENAME TO sys_log");
+        sink.destroy();
+        assertEquals(0, count());
+    }
+
+    @Test
+    void rollsBackWholeBatchWhenOneRowFails() throws Exception {
+        JdbcSysLogSink sink = new JdbcSysLogSink(jdbcTemplate, transactionManager, properties(Duration.ZERO),
+                meterRegistry);
+        jdbcTemplate.execute("ALTER TABLE sys_log ADD CONSTRAINT no_five CHECK (execute_time <> 5)");
+
+        sink.write(sysLogs(10));
+
+        // 不在事务中时，其余 9 行已经提交，重试会写入重复行
+        assertEquals(0, count());
+        assertEquals(10, meterRegistry.get("syslog.jdbc.rows").tag("result", "failed").counter().count());
+        sink.destroy();
+    }
+
+    @Test
+    void truncatesTextColumnsToTheirLength() throws Exception {
+        JdbcSysLogSink sink = new JdbcSysLogSink(jdbcTemplate, transactionManager, properties(Duration.ZERO),
+                meterRegistry);
+        List<SysLogBO> sysLogs = sysLogs(10);
+        StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            longText.append('x');
+        }
+        sysLogs.get(0).setClassName(longText.toString());
+        sysLogs.get(0).setMethodName(longText.toString());
+        sysLogs.get(0).setRemark(longText.toString());
+
+        sink.write(sysLogs);
+
+        assertEquals(10, count());
+        assertEquals(255, jdbcTemplate.queryForObject(
+                "SELECT LENGTH(class_name) FROM sys_log WHERE execute_time = 0", Integer.class));
+        sink.destroy();
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sys_log", Integer.class);
+    }
+
+    private static SysLogProperties properties(Duration linger) {
+        SysLogProperties properties = new SysLogProperties();
+        properties.getSink().getJdbc().setBatchSize(10);
+        properties.getSink().getJdbc().setLinger(linger);
+        return properties;
+    }
+
+    private static List<SysLogBO> sysLogs(int count) {
+        List<SysLogBO> sysLogs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SysLogBO sysLogBO = new SysLogBO();
+            sysLogBO.setRemark("测试AOP");
+            sysLogBO.setClassName("com.example.controller.SysLogAopController");
+            sysLogBO.setMethodName("test");
+            sysLogBO.setParams("[name=chenzufeng" + i + ", age=" + i + "]");
+            sysLogBO.setExecuteTime((long) i);
+            sysLogBO.setCreateTime(System.currentTimeMillis());
+            sysLogs.add(sysLogBO);
+        }
+        return sysLogs;
+    }
+}